@@ -0,0 +1,51 @@
+package com.example.benchmark;
+
+import com.example.util.ApiArtifactUtil;
+import com.example.util.ArtifactCapture;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Saving request/response artifacts for a failing API test: the test-thread cost of
+ * ApiArtifactUtil (submit) and the end-to-end cost including the flush the reporter waits on.
+ * Files are written under artifacts/ in the working directory (target/jmh-work via the profile).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArtifactCaptureBenchmark {
+    @Param({"1024", "65536", "1048576"})
+    public int payloadBytes;
+
+    private String requestBody;
+    private String responseBody;
+    private final AtomicLong counter = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        responseBody = new String(BenchmarkData.jsonPayload(payloadBytes));
+        requestBody = "{\"name\":\"morpheus\",\"job\":\"leader\"}";
+    }
+
+    @Benchmark
+    public String submitOnTestThread() {
+        // Distinct test ids so files are not all rewritten in the same directory
+        return ApiArtifactUtil.saveRequestResponseArtifacts("bench-submit", "test_" + (counter.incrementAndGet() % 1000), requestBody, responseBody);
+    }
+
+    @Benchmark
+    public int submitAndFlush() {
+        ApiArtifactUtil.saveRequestResponseArtifacts("bench-flush", "test_" + (counter.incrementAndGet() % 1000), requestBody, responseBody);
+        return ArtifactCapture.get().flush("bench-flush").size();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ArtifactCapture.get().flush("bench-submit");
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result against a stored baseline and prints the change in
+ * score and in allocation per operation for each benchmark/param combination.
+ * Exits with status 1 when any score regresses by more than the threshold (default 10%).
+ *
+ * Usage: BaselineComparison baseline.json current.json [thresholdPercent]
+ */
+public class BaselineComparison {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: BaselineComparison <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        boolean regressed = false;
+        System.out.printf("%-85s %12s %12s %8s %10s%n", "Benchmark", "Baseline", "Current", "Score", "Alloc/op");
+        for (Map.Entry<String, JsonNode> e : current.entrySet()) {
+            JsonNode before = baseline.get(e.getKey());
+            if (before == null) {
+                System.out.printf("%-85s %12s%n", e.getKey(), "(new)");
+                continue;
+            }
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = e.getValue().path("primaryMetric").path("score").asDouble();
+            double scoreDelta = percent(oldScore, newScore);
+            double allocDelta = percent(allocNorm(before), allocNorm(e.getValue()));
+            String unit = e.getValue().path("primaryMetric").path("scoreUnit").asText();
+            System.out.printf("%-85s %12.3f %12.3f %+7.1f%% %+9.1f%%  %s%n",
+                    e.getKey(), oldScore, newScore, scoreDelta, allocDelta, unit);
+            // All benchmarks here are avgt, so a higher score is slower
+            if (scoreDelta > threshold) {
+                regressed = true;
+            }
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> load(File file) throws Exception {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText().replace("com.example.benchmark.", ""));
+            run.path("params").fields().forEachRemaining(p -> key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText()));
+            byKey.put(key.toString(), run);
+        }
+        return byKey;
+    }
+
+    private static double allocNorm(JsonNode run) {
+        return run.path("secondaryMetrics").path("gc.alloc.rate.norm").path("score").asDouble(Double.NaN);
+    }
+
+    private static double percent(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100.0 / before;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.benchmark;
+
+import com.example.report.ReportRecord;
+import org.testng.ITestClass;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Deterministic, realistic-looking inputs shared by the benchmarks. */
+final class BenchmarkData {
+    private static final String[] STATUSES = {"PASSED", "PASSED", "PASSED", "PASSED", "FAILED", "SKIPPED"};
+
+    private BenchmarkData() { }
+
+    static List<ReportRecord> records(int count) {
+        Random random = new Random(42);
+        List<ReportRecord> records = new ArrayList<>(count);
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            long duration = 50 + random.nextInt(30_000);
+            boolean failed = "FAILED".equals(status);
+            records.add(new ReportRecord(
+                    "testCase_" + i,
+                    "Verify behaviour number " + i + ", including <edge> cases & \"quotes\"",
+                    i % 2 == 0 ? "com.example.ui.BlazeDemoUITest" : "com.example.api.ReqResAPITest",
+                    "AutomatedTestSuiteParallel",
+                    0,
+                    status,
+                    start,
+                    start + duration,
+                    failed ? "artifacts/bench/testCase_" + i + "/" : "",
+                    failed ? "expected [200] but found [500], response was: {\"error\":\"internal\"}" : ""));
+            start += duration;
+        }
+        return records;
+    }
+
+    static byte[] jsonPayload(int size) {
+        StringBuilder sb = new StringBuilder(size + 64).append("{\"data\":[");
+        int i = 0;
+        while (sb.length() < size - 2) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":").append(i).append(",\"email\":\"user").append(i).append("@reqres.in\"}");
+            i++;
+        }
+        return sb.append("]}").toString().getBytes();
+    }
+
+    /** Minimal ITestResult backed by dynamic proxies, enough for ReportRecord.from(). */
+    static ITestResult testResult(int i, boolean failed) {
+        ITestNGMethod method = proxy(ITestNGMethod.class, name -> switch (name) {
+            case "getMethodName" -> "testCase_" + i;
+            case "getDescription" -> "Verify behaviour number " + i;
+            default -> null;
+        });
+        ITestClass testClass = proxy(ITestClass.class, name -> "getName".equals(name) ? "com.example.api.ReqResAPITest" : null);
+        Throwable error = failed ? new AssertionError("expected [200] but found [500]") : null;
+        long startMillis = 1_700_000_000_000L + i * 1000L;
+        return proxy(ITestResult.class, name -> switch (name) {
+            case "getMethod" -> method;
+            case "getTestClass" -> testClass;
+            case "getStartMillis" -> startMillis;
+            case "getEndMillis" -> startMillis + 750;
+            case "getThrowable" -> error;
+            case "getAttribute" -> failed ? "artifacts/bench/testCase_" + i + "/" : null;
+            default -> null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, java.util.function.Function<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (p, m, args) -> answers.apply(m.getName()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.benchmark;
+
+import com.example.report.ReportRecord;
+import com.example.report.StreamingReportWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Writing report.html, report.csv and junit-report.xml for a whole suite. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportWriterBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int results;
+
+    private List<ReportRecord> records;
+    private Path reportDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        records = BenchmarkData.records(results);
+        reportDir = Files.createTempDirectory("report-bench");
+    }
+
+    @Benchmark
+    public int writeAllFormats() throws IOException {
+        try (StreamingReportWriter writer = new StreamingReportWriter(reportDir)) {
+            for (ReportRecord r : records) {
+                writer.write(r);
+            }
+            return writer.getCount();
+        }
+    }
+}
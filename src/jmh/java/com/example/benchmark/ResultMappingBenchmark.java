@@ -0,0 +1,39 @@
+package com.example.benchmark;
+
+import com.example.report.ReportRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Mapping TestNG results to report records (the old SuiteReportGenerator.mapResult step). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultMappingBenchmark {
+    @Param({"1000", "10000"})
+    public int results;
+
+    private List<ITestResult> testResults;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        testResults = new ArrayList<>(results);
+        for (int i = 0; i < results; i++) {
+            testResults.add(BenchmarkData.testResult(i, i % 6 == 4));
+        }
+    }
+
+    @Benchmark
+    public void mapResults(Blackhole bh) {
+        for (ITestResult tr : testResults) {
+            bh.consume(ReportRecord.from(tr, "AutomatedTestSuiteParallel", tr.getThrowable() != null ? "FAILED" : "PASSED"));
+        }
+    }
+}
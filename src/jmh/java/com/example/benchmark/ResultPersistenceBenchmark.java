@@ -0,0 +1,97 @@
+package com.example.benchmark;
+
+import com.example.model.TestResult;
+import com.example.service.ExecutionMetrics;
+import com.example.service.TestResultService;
+import com.example.service.TestResultWriteBehind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The result save path up to the repository: enqueueing a suite's results into the
+ * write-behind buffer and flushing them in batches. The repository is replaced by a
+ * no-op service, so this measures the framework's share, not MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultPersistenceBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int results;
+
+    @Param({"50"})
+    public int batchSize;
+
+    private List<TestResult> testResults;
+    private TestResultWriteBehind writeBehind;
+
+    /** Stands in for the JPA-backed service; only sees the batches. */
+    static class NoOpTestResultService extends TestResultService {
+        Blackhole blackhole;
+
+        @Override
+        public List<TestResult> saveAllTestResults(List<TestResult> batch) {
+            blackhole.consume(batch.size());
+            return batch;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole bh) throws Exception {
+        testResults = new ArrayList<>(results);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < results; i++) {
+            TestResult tr = new TestResult();
+            tr.setExecutionId("bench");
+            tr.setTestName("testCase_" + i);
+            tr.setSuiteName("AutomatedTestSuiteParallel");
+            tr.setStatus(i % 6 == 4 ? "FAILED" : "PASSED");
+            tr.setStartTime(now);
+            tr.setEndTime(now.plusNanos(750_000_000L));
+            tr.setDurationMs(750L);
+            testResults.add(tr);
+        }
+        NoOpTestResultService service = new NoOpTestResultService();
+        service.blackhole = bh;
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        set(metrics, "meterRegistry", new SimpleMeterRegistry());
+        metrics.init();
+        writeBehind = new TestResultWriteBehind();
+        set(writeBehind, "testResultService", service);
+        set(writeBehind, "executionMetrics", metrics);
+        set(writeBehind, "capacity", 10_000);
+        set(writeBehind, "batchSize", batchSize);
+        set(writeBehind, "flushIntervalMs", 1000L);
+        writeBehind.start();
+    }
+
+    @Benchmark
+    public int enqueueAndFlush() {
+        for (TestResult tr : testResults) {
+            writeBehind.enqueue(tr);
+        }
+        writeBehind.flush();
+        return testResults.size();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        writeBehind.shutdown();
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
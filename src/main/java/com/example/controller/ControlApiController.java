@@ -1,101 +1,212 @@
 package com.example.controller;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import java.util.Map;
-import java.util.HashMap;
-import java.io.File;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import java.util.concurrent.RejectedExecutionException;
+import java.io.IOException;
+import java.nio.file.Paths;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api")
 public class ControlApiController {
-    private Map<String, String> executionStatus = new HashMap<>();
+    @Autowired
+    private com.example.service.SuiteExecutionEngine suiteExecutionEngine;
+
+    @Autowired
+    private com.example.service.ExecutionRegistry executionRegistry;
+
+    @Autowired
+    private com.example.service.ArtifactFileServer artifactFileServer;
+
+    @Autowired
+    private com.example.service.TestExecutionService testExecutionService;
+
+    @Autowired
+    private com.example.service.TestResultService testResultService;
+
+    @Autowired
+    private com.example.service.TestResultWriteBehind testResultWriteBehind;
 
     @Autowired
-    private com.example.service.SuiteExecutionService suiteExecutionService;
+    private com.example.service.SuitePlanCache suitePlanCache;
+
+    @Autowired
+    private com.example.service.ExecutionEventBus executionEventBus;
 
     /**
-     * POST /schedule/run — start BlazeDemo or ReqRes suite.
-     * JSON: { "suite": "blazedemo" | "reqres" }
+     * POST /schedule/run — queue a registered suite (see GET /suites) and return immediately.
+     * JSON: { "suite": "blazedemo" | "reqres" | ..., "maxParallelTests": "4" (optional cap on concurrent tests) }
+     * 202 with executionId, 429 when the run queue is full, 503 while shutting down.
      */
     @PostMapping("/schedule/run")
     public ResponseEntity<?> scheduleRun(@RequestBody Map<String, String> body) {
         String suite = body.getOrDefault("suite", "blazedemo");
-        String executionId = String.valueOf(System.currentTimeMillis());
-        executionStatus.put(executionId, "RUNNING");
         try {
-            suiteExecutionService.runSuite(suite, executionId);
-            executionStatus.put(executionId, "COMPLETED");
-        } catch (Exception e) {
-            executionStatus.put(executionId, "FAILED");
+            int maxParallelTests = Integer.parseInt(body.getOrDefault("maxParallelTests", "0"));
+            String executionId = suiteExecutionEngine.submit(suite, maxParallelTests);
+            return ResponseEntity.accepted().body(Map.of("executionId", executionId, "status", "QUEUED"));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "maxParallelTests must be a number"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ExecutionResponses.rejected(suiteExecutionEngine);
         }
-        return ResponseEntity.ok(Map.of("executionId", executionId, "status", executionStatus.get(executionId)));
+    }
+
+    /** GET /suites — registered suite names, their XML file and whether the parsed plan is cached. */
+    @GetMapping("/suites")
+    public ResponseEntity<?> listSuites() {
+        return ResponseEntity.ok(suitePlanCache.list());
     }
 
     /**
-     * GET /executions/{id}/status — QUEUED/RUNNING/COMPLETED/FAILED
+     * POST /suites — register a suite XML under a name usable in /schedule/run.
+     * JSON: { "name": "checkout", "file": "checkout_smoke.xml" } (relative to suites.dir, or a path)
+     * 201 once the file parsed; 400 when it is missing or invalid.
+     */
+    @PostMapping("/suites")
+    public ResponseEntity<?> registerSuite(@RequestBody Map<String, String> body) {
+        String name = body.get("name");
+        String file = body.get("file");
+        if (name == null || name.isBlank() || file == null || file.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "name and file are required"));
+        }
+        try {
+            suitePlanCache.register(name, file);
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("name", name.trim().toLowerCase(), "file", file));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /executions/{id}/rerun-failed — queue a run of only the tests that are still
+     * failed/skipped in execution {id} (and its earlier reruns).
+     * 202 with the new executionId; 404 for an unknown execution; 409 while it is still
+     * running or when nothing failed; 429/503 as for /schedule/run.
+     * The merged report is written to reports/{id}/merged (download with view=merged).
+     */
+    @PostMapping("/executions/{id}/rerun-failed")
+    public ResponseEntity<?> rerunFailed(@PathVariable String id) {
+        String suite;
+        String rerunOf;
+        com.example.model.ExecutionStatus status;
+        com.example.service.ExecutionRecord record = executionRegistry.get(id);
+        if (record != null) {
+            suite = record.getSuite();
+            rerunOf = record.getRerunOf();
+            status = record.getStatus();
+        } else {
+            var execution = testExecutionService.getExecution(id).orElse(null);
+            if (execution == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("executionId", id, "status", "NOT_FOUND"));
+            }
+            suite = execution.getSuite();
+            rerunOf = execution.getRerunOf();
+            status = execution.getStatus();
+        }
+        if (!status.isTerminal()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Execution is still " + status));
+        }
+        // Reruns of a rerun attach to the original, so the merged view covers the whole chain
+        String originalId = rerunOf != null ? rerunOf : id;
+        testResultWriteBehind.flush();
+        int failing = testResultService.getFailingMethods(originalId).size();
+        if (failing == 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "No failed or skipped tests to rerun"));
+        }
+        try {
+            String executionId = suiteExecutionEngine.submitRerun(suite, originalId);
+            return ResponseEntity.accepted().body(Map.of("executionId", executionId, "status", "QUEUED",
+                    "rerunOf", originalId, "tests", failing));
+        } catch (RejectedExecutionException e) {
+            return ExecutionResponses.rejected(suiteExecutionEngine);
+        }
+    }
+
+    /**
+     * GET /executions/{id}/status — QUEUED/RUNNING/COMPLETED/FAILED plus live
+     * passed/failed/skipped/total/running counters, elapsedMs and etaMs, served from memory.
      */
     @GetMapping("/executions/{id}/status")
     public ResponseEntity<?> getExecutionStatus(@PathVariable String id) {
-        String status = executionStatus.getOrDefault(id, "NOT_FOUND");
-        return ResponseEntity.ok(Map.of("executionId", id, "status", status));
+        com.example.service.ExecutionRecord record = executionRegistry.get(id);
+        if (record == null) {
+            return ResponseEntity.ok(Map.of("executionId", id, "status", "NOT_FOUND"));
+        }
+        return ResponseEntity.ok(record.toStatusMap());
+    }
+
+    /**
+     * GET /executions/{id}/events — Server-Sent Events stream of a run's progress: a snapshot,
+     * then test-started/test-finished events carrying the live counts, running and etaMs,
+     * status changes, and the final status before the stream closes. 404 for unknown runs.
+     */
+    @GetMapping(value = "/executions/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamExecutionEvents(@PathVariable String id) {
+        com.example.service.ExecutionRecord record = executionRegistry.get(id);
+        if (record == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(executionEventBus.subscribe(record));
     }
 
     /**
-     * GET /reports/{executionId}/download?type=html|csv|junit — Download report file
+     * GET /reports/{executionId}/download?type=html|csv|junit[&view=merged] — Download report file
+     * (conditional GET, Range and gzip handled by ArtifactFileServer)
      */
     @GetMapping("/reports/{executionId}/download")
-    public ResponseEntity<Resource> downloadReport(@PathVariable String executionId, @RequestParam String type) {
+    public void downloadReport(@PathVariable String executionId, @RequestParam String type,
+                               @RequestParam(defaultValue = "run") String view,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
         String filename = switch (type) {
             case "html" -> "report.html";
             case "csv" -> "report.csv";
             case "junit" -> "junit-report.xml";
             default -> null;
         };
-        if (filename == null) return ResponseEntity.badRequest().build();
-        File file = new File("reports/" + executionId + "/" + filename);
-        if (!file.exists()) return ResponseEntity.notFound().build();
-        Resource resource = new FileSystemResource(file);
-        return ResponseEntity.ok()
-                .header("Content-Disposition", "attachment; filename=" + filename)
-                .body(resource);
+        if (filename == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        MediaType mediaType = switch (type) {
+            case "html" -> MediaType.TEXT_HTML;
+            case "csv" -> MediaType.parseMediaType("text/csv");
+            default -> MediaType.APPLICATION_XML;
+        };
+        String dir = "merged".equals(view) ? executionId + "/merged/" : executionId + "/";
+        artifactFileServer.serve(Paths.get("reports"), dir + filename, filename, mediaType, request, response);
     }
 
     /**
      * GET /artifacts/{executionId}/{testCaseId}/screenshot.png — Download screenshots / API logs
      */
     @GetMapping("/artifacts/{executionId}/{testCaseId}/screenshot.png")
-    public ResponseEntity<Resource> downloadArtifact(@PathVariable String executionId, @PathVariable String testCaseId) {
-        File file = new File("artifacts/" + executionId + "/" + testCaseId + "/screenshot.png");
-        if (!file.exists()) return ResponseEntity.notFound().build();
-        Resource resource = new FileSystemResource(file);
-        return ResponseEntity.ok()
-                .header("Content-Disposition", "attachment; filename=screenshot.png")
-                .body(resource);
+    public void downloadArtifact(@PathVariable String executionId, @PathVariable String testCaseId,
+                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        artifactFileServer.serve(Paths.get("artifacts"), executionId + "/" + testCaseId + "/screenshot.png",
+                "screenshot.png", MediaType.IMAGE_PNG, request, response);
     }
-    
+
     @GetMapping("/artifacts/{executionId}/{testCaseId}/request.json")
-    public ResponseEntity<Resource> downloadRequestArtifact(@PathVariable String executionId, @PathVariable String testCaseId) {
-        File file = new File("artifacts/" + executionId + "/" + testCaseId + "/request.json");
-        if (!file.exists()) return ResponseEntity.notFound().build();
-        Resource resource = new FileSystemResource(file);
-        return ResponseEntity.ok()
-                .header("Content-Disposition", "attachment; filename=request.json")
-                .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
-                .body(resource);
+    public void downloadRequestArtifact(@PathVariable String executionId, @PathVariable String testCaseId,
+                                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        artifactFileServer.serve(Paths.get("artifacts"), executionId + "/" + testCaseId + "/request.json",
+                "request.json", MediaType.APPLICATION_JSON, request, response);
     }
-    
+
     @GetMapping("/artifacts/{executionId}/{testCaseId}/response.json")
-    public ResponseEntity<Resource> downloadResponseArtifact(@PathVariable String executionId, @PathVariable String testCaseId) {
-        File file = new File("artifacts/" + executionId + "/" + testCaseId + "/response.json");
-        if (!file.exists()) return ResponseEntity.notFound().build();
-        Resource resource = new FileSystemResource(file);
-        return ResponseEntity.ok()
-                .header("Content-Disposition", "attachment; filename=response.json")
-                .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
-                .body(resource);
+    public void downloadResponseArtifact(@PathVariable String executionId, @PathVariable String testCaseId,
+                                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        artifactFileServer.serve(Paths.get("artifacts"), executionId + "/" + testCaseId + "/response.json",
+                "response.json", MediaType.APPLICATION_JSON, request, response);
     }
 }
@@ -0,0 +1,23 @@
+package com.example.controller;
+
+import com.example.service.SuiteExecutionEngine;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+/** Responses shared by the endpoints that submit runs to the SuiteExecutionEngine. */
+public final class ExecutionResponses {
+    private ExecutionResponses() { }
+
+    /** A submission the engine rejected: 503 once shutdown has begun, otherwise the queue is full: 429 with a retry hint. */
+    public static ResponseEntity<?> rejected(SuiteExecutionEngine engine) {
+        if (!engine.isAcceptingWork()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Execution engine is shutting down"));
+        }
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "30")
+                .body(Map.of("error", "Execution queue is full", "queueDepth", engine.getQueueDepth()));
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.controller;
 
 import com.example.model.TestCase;
+import com.example.service.KeysetPage;
 import com.example.service.TestCaseService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -32,4 +35,25 @@ public class TestCaseController {
         List<TestCase> testCases = testCaseService.getAllTestCases();
         return ResponseEntity.ok(testCases);
     }
+
+    /** GET /tests/page?cursor=&limit=&type=&status= — keyset pagination ordered by id. */
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<TestCase>> getTestCasePage(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status) {
+        return ResponseEntity.ok(testCaseService.getTestCasePage(cursor, limit, type, status));
+    }
+
+    /** GET /tests/export?type=&status= — NDJSON stream from a DB cursor. */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTestCases(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status) {
+        StreamingResponseBody body = out -> testCaseService.exportTestCases(type, status, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
 }
@@ -1,12 +1,27 @@
 package com.example.controller;
 
 import com.example.model.TestResult;
+import com.example.model.TestStatistics;
+import com.example.service.ArtifactFileServer;
+import com.example.service.KeysetPage;
+import com.example.service.TestResultFilter;
 import com.example.service.TestResultService;
+import com.example.service.TestStatisticsService;
+import com.example.service.TrendRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/results")
@@ -16,25 +31,26 @@ public class TestResultController {
      * Example: /results/artifact/{executionId}/{testCaseId}/{filename}
      */
     @GetMapping("/artifact/{executionId}/{testCaseId}/{filename}")
-    public ResponseEntity<?> downloadArtifact(
+    public void downloadArtifact(
             @PathVariable String executionId,
             @PathVariable String testCaseId,
-            @PathVariable String filename) {
-        java.io.File file = new java.io.File("artifacts/" + executionId + "/" + testCaseId + "/" + filename);
-        if (!file.exists() || !file.isFile()) {
-            return ResponseEntity.notFound().build();
-        }
-        org.springframework.core.io.Resource resource = new org.springframework.core.io.FileSystemResource(file);
-        String contentType = "application/octet-stream";
-        if (filename.endsWith(".png")) contentType = "image/png";
-        else if (filename.endsWith(".json")) contentType = "application/json";
-        return ResponseEntity.ok()
-                .header("Content-Disposition", "attachment; filename=" + filename)
-                .contentType(org.springframework.http.MediaType.parseMediaType(contentType))
-                .body(resource);
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        MediaType contentType = MediaType.APPLICATION_OCTET_STREAM;
+        if (filename.endsWith(".png")) contentType = MediaType.IMAGE_PNG;
+        else if (filename.endsWith(".json")) contentType = MediaType.APPLICATION_JSON;
+        artifactFileServer.serve(Paths.get("artifacts"), executionId + "/" + testCaseId + "/" + filename,
+                filename, contentType, request, response);
     }
     @Autowired
+    private ArtifactFileServer artifactFileServer;
+    @Autowired
     private TestResultService testResultService;
+    @Autowired
+    private TestStatisticsService testStatisticsService;
+    @Autowired
+    private TrendRollupService trendRollupService;
 
     @PostMapping
     public ResponseEntity<TestResult> createTestResult(@RequestBody TestResult testResult) {
@@ -47,4 +63,74 @@ public class TestResultController {
         List<TestResult> results = testResultService.getAllTestResults();
         return ResponseEntity.ok(results);
     }
+
+    /**
+     * GET /results/merged?executionId= — merged view of an execution and its reruns:
+     * the latest result of each test.
+     */
+    @GetMapping("/merged")
+    public ResponseEntity<List<TestResult>> getMergedResults(@RequestParam String executionId) {
+        return ResponseEntity.ok(testResultService.getMergedResults(executionId));
+    }
+
+    /**
+     * GET /results/stats?suite=&sort=flakiness|p95|p50|passRate|runs&limit=100 — precomputed per-test
+     * statistics (runs, pass rate, recent pass rate, flips, flakiness, p50/p95/max duration).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<TestStatistics>> getTestStatistics(
+            @RequestParam(required = false) String suite,
+            @RequestParam(defaultValue = "flakiness") String sort,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(testStatisticsService.list(suite, sort, limit));
+    }
+
+    /**
+     * GET /results/trends?suite=&granularity=day|hour&from=&to= — per-suite buckets (tests, passed,
+     * failed, skipped, passRate, total/avg/max duration) read from the hourly/daily rollups only;
+     * from/to are ISO date-times and default to the last 30 days (48 hours for hour).
+     */
+    @GetMapping("/trends")
+    public ResponseEntity<List<Map<String, Object>>> getTrends(
+            @RequestParam(required = false) String suite,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(trendRollupService.trends(suite, granularity, from, to));
+    }
+
+    /**
+     * GET /results/page?cursor=&limit=&suite=&status=&executionId=&from=&to= — keyset pagination.
+     * Pass the returned nextCursor as cursor to fetch the next page; from/to are ISO date-times on startTime.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<TestResult>> getTestResultPage(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String suite,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String executionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        TestResultFilter filter = new TestResultFilter(suite, status, executionId, from, to);
+        return ResponseEntity.ok(testResultService.getTestResultPage(cursor, limit, filter));
+    }
+
+    /**
+     * GET /results/export — same filters as /page, streamed as NDJSON (one result per line)
+     * straight from a DB cursor.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTestResults(
+            @RequestParam(required = false) String suite,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String executionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        TestResultFilter filter = new TestResultFilter(suite, status, executionId, from, to);
+        StreamingResponseBody body = out -> testResultService.exportTestResults(filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
 }
@@ -0,0 +1,9 @@
+package com.example.model;
+
+public enum ExecutionStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.model;
+
+/** Dispatch class of a queued run: interactive (API, rerun, run-now) runs go before scheduled ones. */
+public enum RunPriority {
+    INTERACTIVE, SCHEDULED
+}
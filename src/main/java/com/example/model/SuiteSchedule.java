@@ -0,0 +1,48 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A persisted schedule: recurring when cronExpression is set (Spring cron, six fields),
+ * otherwise a one-off run at nextRunAt that disables itself after firing.
+ */
+@Entity
+@Table(name = "suite_schedule")
+public class SuiteSchedule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+    private String suite;
+    private String cronExpression;
+    private int maxParallelTests;
+    private boolean enabled = true;
+    private LocalDateTime nextRunAt;
+    private LocalDateTime lastRunAt;
+    private String lastExecutionId;
+    private LocalDateTime createdAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getSuite() { return suite; }
+    public void setSuite(String suite) { this.suite = suite; }
+    public String getCronExpression() { return cronExpression; }
+    public void setCronExpression(String cronExpression) { this.cronExpression = cronExpression; }
+    public int getMaxParallelTests() { return maxParallelTests; }
+    public void setMaxParallelTests(int maxParallelTests) { this.maxParallelTests = maxParallelTests; }
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public LocalDateTime getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(LocalDateTime nextRunAt) { this.nextRunAt = nextRunAt; }
+    public LocalDateTime getLastRunAt() { return lastRunAt; }
+    public void setLastRunAt(LocalDateTime lastRunAt) { this.lastRunAt = lastRunAt; }
+    public String getLastExecutionId() { return lastExecutionId; }
+    public void setLastExecutionId(String lastExecutionId) { this.lastExecutionId = lastExecutionId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
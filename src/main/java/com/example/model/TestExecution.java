@@ -0,0 +1,55 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "test_execution")
+public class TestExecution {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String executionId;
+    private String suite;
+    @Enumerated(EnumType.STRING)
+    private ExecutionStatus status;
+    private LocalDateTime queuedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private int total;
+    private int passed;
+    private int failed;
+    private int skipped;
+    private String rerunOf;
+    @Enumerated(EnumType.STRING)
+    private RunPriority priority;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getExecutionId() { return executionId; }
+    public void setExecutionId(String executionId) { this.executionId = executionId; }
+    public String getSuite() { return suite; }
+    public void setSuite(String suite) { this.suite = suite; }
+    public ExecutionStatus getStatus() { return status; }
+    public void setStatus(ExecutionStatus status) { this.status = status; }
+    public LocalDateTime getQueuedAt() { return queuedAt; }
+    public void setQueuedAt(LocalDateTime queuedAt) { this.queuedAt = queuedAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    public int getPassed() { return passed; }
+    public void setPassed(int passed) { this.passed = passed; }
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    public int getSkipped() { return skipped; }
+    public void setSkipped(int skipped) { this.skipped = skipped; }
+    public String getRerunOf() { return rerunOf; }
+    public void setRerunOf(String rerunOf) { this.rerunOf = rerunOf; }
+    public RunPriority getPriority() { return priority; }
+    public void setPriority(RunPriority priority) { this.priority = priority; }
+}
@@ -6,15 +6,21 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "test_result")
 public class TestResult {
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "test_result_seq")
+    @SequenceGenerator(name = "test_result_seq", sequenceName = "test_result_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "test_case_id")
     private TestCase testCase;
 
+    private String executionId;
     private String testName;
+    private String className;
+    // Data-provider invocation of the method, 0 for methods without one
+    private int parameterIndex;
     private String suiteName;
     private String status;
     private LocalDateTime startTime;
@@ -28,8 +34,14 @@ public class TestResult {
     public void setId(Long id) { this.id = id; }
     public TestCase getTestCase() { return testCase; }
     public void setTestCase(TestCase testCase) { this.testCase = testCase; }
+    public String getExecutionId() { return executionId; }
+    public void setExecutionId(String executionId) { this.executionId = executionId; }
     public String getTestName() { return testName; }
     public void setTestName(String testName) { this.testName = testName; }
+    public String getClassName() { return className; }
+    public void setClassName(String className) { this.className = className; }
+    public int getParameterIndex() { return parameterIndex; }
+    public void setParameterIndex(int parameterIndex) { this.parameterIndex = parameterIndex; }
     public String getSuiteName() { return suiteName; }
     public void setSuiteName(String suiteName) { this.suiteName = suiteName; }
     public String getStatus() { return status; }
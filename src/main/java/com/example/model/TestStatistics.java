@@ -0,0 +1,80 @@
+package com.example.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Running statistics of one test (class and method, the class empty for older history) in one suite, kept up to date as results are written.
+ * Flips count PASSED/FAILED changes between consecutive non-skipped results (skips don't
+ * break a streak); flakiness is flips per possible flip. Durations of non-skipped results
+ * feed a DurationSketch from which p50/p95 are refreshed on every update.
+ */
+@Entity
+@Table(name = "test_statistics")
+public class TestStatistics {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String suiteName;
+    private String className;
+    private String testName;
+    private long runs;
+    private long passed;
+    private long failed;
+    private long skipped;
+    private long flips;
+    // Last PASSED/FAILED result, what the next one is compared with for a flip
+    private String lastOutcome;
+    private double passRate;
+    private double recentPassRate;
+    private double flakiness;
+    private Long p50DurationMs;
+    private Long p95DurationMs;
+    private Long maxDurationMs;
+    @JsonIgnore
+    private String durationSketch;
+    private LocalDateTime lastRunAt;
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getSuiteName() { return suiteName; }
+    public void setSuiteName(String suiteName) { this.suiteName = suiteName; }
+    public String getClassName() { return className; }
+    public void setClassName(String className) { this.className = className; }
+    public String getTestName() { return testName; }
+    public void setTestName(String testName) { this.testName = testName; }
+    public long getRuns() { return runs; }
+    public void setRuns(long runs) { this.runs = runs; }
+    public long getPassed() { return passed; }
+    public void setPassed(long passed) { this.passed = passed; }
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+    public long getSkipped() { return skipped; }
+    public void setSkipped(long skipped) { this.skipped = skipped; }
+    public long getFlips() { return flips; }
+    public void setFlips(long flips) { this.flips = flips; }
+    public String getLastOutcome() { return lastOutcome; }
+    public void setLastOutcome(String lastOutcome) { this.lastOutcome = lastOutcome; }
+    public double getPassRate() { return passRate; }
+    public void setPassRate(double passRate) { this.passRate = passRate; }
+    public double getRecentPassRate() { return recentPassRate; }
+    public void setRecentPassRate(double recentPassRate) { this.recentPassRate = recentPassRate; }
+    public double getFlakiness() { return flakiness; }
+    public void setFlakiness(double flakiness) { this.flakiness = flakiness; }
+    public Long getP50DurationMs() { return p50DurationMs; }
+    public void setP50DurationMs(Long p50DurationMs) { this.p50DurationMs = p50DurationMs; }
+    public Long getP95DurationMs() { return p95DurationMs; }
+    public void setP95DurationMs(Long p95DurationMs) { this.p95DurationMs = p95DurationMs; }
+    public Long getMaxDurationMs() { return maxDurationMs; }
+    public void setMaxDurationMs(Long maxDurationMs) { this.maxDurationMs = maxDurationMs; }
+    public String getDurationSketch() { return durationSketch; }
+    public void setDurationSketch(String durationSketch) { this.durationSketch = durationSketch; }
+    public LocalDateTime getLastRunAt() { return lastRunAt; }
+    public void setLastRunAt(LocalDateTime lastRunAt) { this.lastRunAt = lastRunAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,92 @@
+package com.example.report;
+
+import com.example.scheduler.DurationHistory;
+import com.example.service.ExecutionEventBus;
+import com.example.service.ExecutionMetrics;
+import com.example.service.ExecutionRecord;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.Map;
+
+/**
+ * Feeds live pass/fail/skip counts of one run into its ExecutionRecord,
+ * records each test's duration in the test.duration histogram and publishes
+ * test-started/test-finished events to the run's live stream subscribers.
+ * One instance is created per run by SuiteExecutionService; record may be null
+ * for runs that are not tracked in the registry, events null when nothing streams.
+ */
+public class ExecutionProgressListener implements ITestListener {
+    private final ExecutionRecord record;
+    private final ExecutionMetrics metrics;
+    private final ExecutionEventBus events;
+
+    public ExecutionProgressListener(ExecutionRecord record, ExecutionMetrics metrics) {
+        this(record, metrics, null);
+    }
+
+    public ExecutionProgressListener(ExecutionRecord record, ExecutionMetrics metrics, ExecutionEventBus events) {
+        this.record = record;
+        this.metrics = metrics;
+        this.events = events;
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        if (record != null) record.testStarted();
+        publish("test-started", result, null);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finished(result, "PASSED");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finished(result, "FAILED");
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        finished(result, "FAILED");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        finished(result, "SKIPPED");
+    }
+
+    private void finished(ITestResult result, String status) {
+        if (record != null) {
+            switch (status) {
+                case "PASSED" -> record.testPassed();
+                case "FAILED" -> record.testFailed();
+                default -> record.testSkipped();
+            }
+            record.workDone(DurationHistory.key(result.getTestClass().getName(), result.getMethod().getMethodName()));
+        }
+        recordDuration(result, status);
+        publish("test-finished", result, status);
+    }
+
+    private void recordDuration(ITestResult result, String status) {
+        if (metrics == null) return;
+        String suite = result.getTestContext() != null ? result.getTestContext().getSuite().getName() : "";
+        String className = result.getTestClass() != null ? result.getTestClass().getName() : "";
+        metrics.recordTest(suite, className, status, result.getEndMillis() - result.getStartMillis());
+    }
+
+    // Event payload: the record's running totals (counts, running, etaMs) plus the test itself
+    private void publish(String event, ITestResult result, String status) {
+        if (events == null || record == null) return;
+        Map<String, Object> data = record.toStatusMap();
+        data.put("test", result.getMethod().getMethodName());
+        data.put("className", result.getTestClass() != null ? result.getTestClass().getName() : "");
+        if (status != null) {
+            data.put("testStatus", status);
+            data.put("durationMs", result.getEndMillis() - result.getStartMillis());
+        }
+        events.publish(record.getExecutionId(), event, data);
+    }
+}
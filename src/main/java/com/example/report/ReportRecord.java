@@ -0,0 +1,85 @@
+package com.example.report;
+
+import com.example.model.TestResult;
+import org.testng.ITestResult;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+
+/**
+ * Compact, typed view of one test result as it flows into the report writers and the DB.
+ * Timestamps stay numeric; formatting happens once, at write time.
+ */
+public record ReportRecord(
+        String testCaseId,
+        String name,
+        String className,
+        String suite,
+        int parameterIndex,
+        String status,
+        long startMillis,
+        long endMillis,
+        String artifactLink,
+        String errorMessage) {
+
+    public long durationMs() {
+        return endMillis - startMillis;
+    }
+
+    /**
+     * This record with its artifact reported as missing when the artifact (a file, or a
+     * directory holding files) is among the given unwritten paths: the link is dropped so the
+     * report does not point at nothing, and the error message says so.
+     */
+    public ReportRecord withMissingArtifacts(Collection<String> missing) {
+        if (artifactLink.isEmpty() || missing.isEmpty()) return this;
+        for (String path : missing) {
+            if (path.startsWith(artifactLink)) {
+                String note = "Artifact not written in time: " + artifactLink;
+                return new ReportRecord(testCaseId, name, className, suite, parameterIndex, status, startMillis, endMillis,
+                        "", errorMessage.isEmpty() ? note : errorMessage + " (" + note + ")");
+            }
+        }
+        return this;
+    }
+
+    /** parameterIndex is the data-provider invocation; ITestResult only exposes it on TestNG's own implementation. */
+    public static ReportRecord from(ITestResult tr, String suiteName, String status) {
+        String methodName = tr.getMethod().getMethodName();
+        String description = tr.getMethod().getDescription();
+        Object artifactPath = tr.getAttribute("artifactPath");
+        Throwable t = tr.getThrowable();
+        String error = t != null && t.getMessage() != null ? t.getMessage() : "";
+        return new ReportRecord(
+                methodName,
+                description != null ? description : methodName,
+                tr.getTestClass() != null ? tr.getTestClass().getName() : "",
+                suiteName,
+                tr instanceof org.testng.internal.TestResult invocation ? invocation.getParameterIndex() : 0,
+                status,
+                tr.getStartMillis(),
+                tr.getEndMillis(),
+                artifactPath != null ? artifactPath.toString() : "",
+                error);
+    }
+
+    /** Rebuilds a record from a stored row (used for merged reports); older rows have no class name. */
+    public static ReportRecord from(TestResult r) {
+        return new ReportRecord(
+                r.getTestName(),
+                r.getTestName(),
+                r.getClassName() != null ? r.getClassName() : "",
+                r.getSuiteName(),
+                r.getParameterIndex(),
+                r.getStatus(),
+                toMillis(r.getStartTime()),
+                toMillis(r.getEndTime()),
+                r.getArtifactLink() != null ? r.getArtifactLink() : "",
+                r.getErrorMessage() != null ? r.getErrorMessage() : "");
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
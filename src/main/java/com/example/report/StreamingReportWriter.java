@@ -0,0 +1,201 @@
+package com.example.report;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes report.html, report.csv and junit-report.xml in a single pass.
+ * Each record is fanned out to all three buffered channel writers as it arrives, so
+ * memory stays constant however large the suite is. JUnit XML goes through a StAX
+ * writer, which escapes attribute and text content.
+ */
+public class StreamingReportWriter implements Closeable {
+    static final String[] COLUMNS = {"TestCaseId","Name","Suite","Status","StartTime","EndTime","Duration","ArtifactLink","ErrorMessage"};
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer html;
+    private final Writer csv;
+    private final Writer junitOut;
+    private final XMLStreamWriter junit;
+    private final Map<String, String> summary = new LinkedHashMap<>();
+    private int count;
+
+    public StreamingReportWriter(Path reportDir) throws IOException {
+        Files.createDirectories(reportDir);
+        html = open(reportDir.resolve("report.html"));
+        csv = open(reportDir.resolve("report.csv"));
+        junitOut = open(reportDir.resolve("junit-report.xml"));
+        try {
+            junit = XMLOutputFactory.newFactory().createXMLStreamWriter(junitOut);
+            junit.writeStartDocument("UTF-8", "1.0");
+            junit.writeStartElement("testsuite");
+        } catch (XMLStreamException e) {
+            closeQuietly();
+            throw new IOException("Failed to start JUnit XML report", e);
+        }
+        html.write("<html><head><title>Test Report</title></head><body>");
+        html.write("<h1>Test Report</h1><table border='1'><tr>");
+        for (String col : COLUMNS) {
+            html.write("<th>" + col + "</th>");
+        }
+        html.write("</tr>");
+        csv.write(String.join(",", COLUMNS));
+        csv.write('\n');
+    }
+
+    private static Writer open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public void write(ReportRecord r) throws IOException {
+        count++;
+        String start = TIME_FORMAT.format(Instant.ofEpochMilli(r.startMillis()));
+        String end = TIME_FORMAT.format(Instant.ofEpochMilli(r.endMillis()));
+
+        html.write("<tr><td>");
+        html.write(escapeHtml(r.testCaseId()));
+        html.write("</td><td>");
+        html.write(escapeHtml(r.name()));
+        html.write("</td><td>");
+        html.write(escapeHtml(r.suite()));
+        html.write("</td><td>");
+        html.write(r.status());
+        html.write("</td><td>");
+        html.write(start);
+        html.write("</td><td>");
+        html.write(end);
+        html.write("</td><td>");
+        html.write(Long.toString(r.durationMs()));
+        html.write("ms</td><td>");
+        if (!r.artifactLink().isEmpty()) {
+            html.write("<a href='");
+            html.write(escapeHtml(r.artifactLink()));
+            html.write("'>Download</a>");
+        }
+        html.write("</td><td>");
+        html.write(escapeHtml(r.errorMessage()));
+        html.write("</td></tr>");
+
+        writeCsvField(r.testCaseId()); csv.write(',');
+        writeCsvField(r.name()); csv.write(',');
+        writeCsvField(r.suite()); csv.write(',');
+        csv.write(r.status()); csv.write(',');
+        csv.write(Long.toString(r.startMillis())); csv.write(',');
+        csv.write(Long.toString(r.endMillis())); csv.write(',');
+        csv.write(Long.toString(r.durationMs())); csv.write(',');
+        writeCsvField(r.artifactLink()); csv.write(',');
+        writeCsvField(r.errorMessage());
+        csv.write('\n');
+
+        try {
+            junit.writeStartElement("testcase");
+            junit.writeAttribute("classname", r.suite());
+            junit.writeAttribute("name", r.testCaseId());
+            junit.writeAttribute("time", String.valueOf(r.durationMs() / 1000.0));
+            if ("FAILED".equals(r.status())) {
+                junit.writeEmptyElement("failure");
+                junit.writeAttribute("message", r.errorMessage());
+            } else if ("SKIPPED".equals(r.status())) {
+                junit.writeEmptyElement("skipped");
+            }
+            if (!r.artifactLink().isEmpty()) {
+                junit.writeStartElement("system-out");
+                junit.writeCharacters("Artifact: " + r.artifactLink());
+                junit.writeEndElement();
+            }
+            junit.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write JUnit XML entry for " + r.testCaseId(), e);
+        }
+    }
+
+    /** Adds a label/value line to the HTML report footer (written on close). */
+    public void addSummary(String label, String value) {
+        summary.put(label, value);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            html.write("</table>");
+            if (!summary.isEmpty()) {
+                html.write("<h2>Summary</h2><ul>");
+                for (Map.Entry<String, String> e : summary.entrySet()) {
+                    html.write("<li>" + escapeHtml(e.getKey()) + ": " + escapeHtml(e.getValue()) + "</li>");
+                }
+                html.write("</ul>");
+            }
+            html.write("</body></html>");
+            junit.writeEndElement();
+            junit.writeEndDocument();
+            junit.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to finish JUnit XML report", e);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        for (Writer w : new Writer[]{html, csv, junitOut}) {
+            if (w == null) continue;
+            try { w.close(); } catch (IOException ignored) { }
+        }
+    }
+
+    private void writeCsvField(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        csv.write(value.replace("\"", "\"\""));
+        csv.write('"');
+    }
+
+    static String escapeHtml(String s) {
+        StringBuilder sb = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String rep = switch (c) {
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '&' -> "&amp;";
+                case '\'' -> "&#39;";
+                case '"' -> "&quot;";
+                default -> null;
+            };
+            if (rep != null && sb == null) {
+                sb = new StringBuilder(s.length() + 16).append(s, 0, i);
+            }
+            if (sb != null) {
+                if (rep != null) sb.append(rep); else sb.append(c);
+            }
+        }
+        return sb == null ? s : sb.toString();
+    }
+}
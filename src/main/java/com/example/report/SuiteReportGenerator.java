@@ -2,17 +2,23 @@ package com.example.report;
 
 import org.testng.IReporter;
 import org.testng.ISuite;
+import org.testng.ITestResult;
 import org.testng.xml.XmlSuite;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
-import java.io.File;
-import java.io.FileWriter;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import com.example.service.TestResultService;
+import com.example.service.ExecutionMetrics;
+import com.example.service.TestResultWriteBehind;
+import com.example.util.ArtifactCapture;
+import com.example.util.ExecutionContext;
 import com.example.model.TestResult;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -20,146 +26,147 @@ import java.time.ZoneId;
 
 @Component
 public class SuiteReportGenerator implements IReporter {
+    /** Suite attributes with this prefix are listed in the HTML report summary (name after the prefix). */
+    public static final String SUMMARY_ATTRIBUTE_PREFIX = "report.summary.";
+
+    @Autowired
+    private TestResultWriteBehind testResultWriteBehind;
     @Autowired
-    private TestResultService testResultService;
+    private ExecutionMetrics executionMetrics;
     @Override
     public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
         System.out.println("[DEBUG] SuiteReportGenerator: generateReport called");
-        String executionId = System.getProperty("executionId", "manual");
-        String reportDir = "reports/" + executionId + "/";
-        File reportFolder = new File(reportDir);
-        reportFolder.mkdirs();
-        System.out.println("[DEBUG] Report folder: " + reportFolder.getAbsolutePath());
-        // Collect test results
-        List<Map<String, String>> results = new java.util.ArrayList<>();
+        String executionId = ExecutionContext.of(suites);
+        Map<String, String> summary = new LinkedHashMap<>();
         for (ISuite suite : suites) {
-            suite.getResults().forEach((testName, result) -> {
-                result.getTestContext().getPassedTests().getAllResults().forEach(tr -> {
-                    Map<String, String> m = mapResult(tr, suite.getName(), "PASSED");
-                    results.add(m);
-                    saveTestResultToDb(m);
-                });
-                result.getTestContext().getFailedTests().getAllResults().forEach(tr -> {
-                    Map<String, String> m = mapResult(tr, suite.getName(), "FAILED");
-                    results.add(m);
-                    saveTestResultToDb(m);
-                });
-                result.getTestContext().getSkippedTests().getAllResults().forEach(tr -> {
-                    Map<String, String> m = mapResult(tr, suite.getName(), "SKIPPED");
-                    results.add(m);
-                    saveTestResultToDb(m);
-                });
-            });
+            for (String name : suite.getAttributeNames()) {
+                if (name.startsWith(SUMMARY_ATTRIBUTE_PREFIX)) {
+                    summary.put(name.substring(SUMMARY_ATTRIBUTE_PREFIX.length()), String.valueOf(suite.getAttribute(name)));
+                }
+            }
         }
-        // Generate HTML, CSV, JUnit XML
-        generateHtmlReport(results, reportDir + "report.html");
-        generateCsvReport(results, reportDir + "report.csv");
-        generateJUnitXmlReport(results, reportDir + "junit-report.xml");
+        writeReport(executionId, sink -> {
+            for (ISuite suite : suites) {
+                for (var result : suite.getResults().values()) {
+                    var context = result.getTestContext();
+                    write(sink, context.getPassedTests().getAllResults(), suite.getName(), "PASSED");
+                    write(sink, context.getFailedTests().getAllResults(), suite.getName(), "FAILED");
+                    write(sink, context.getSkippedTests().getAllResults(), suite.getName(), "SKIPPED");
+                }
+            }
+        }, summary);
     }
 
-    private void saveTestResultToDb(Map<String, String> m) {
-        try {
-            if (testResultService == null) return;
-            TestResult tr = new TestResult();
-            tr.setTestName(m.get("TestCaseId"));
-            tr.setSuiteName(m.get("Suite"));
-            tr.setStatus(m.get("Status"));
-            tr.setArtifactLink(m.get("ArtifactLink"));
-            tr.setErrorMessage(m.get("ErrorMessage"));
-            // Convert start/end time from millis to LocalDateTime
-            long startMillis = Long.parseLong(m.get("StartTime"));
-            long endMillis = Long.parseLong(m.get("EndTime"));
-            tr.setStartTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(startMillis), ZoneId.systemDefault()));
-            tr.setEndTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(endMillis), ZoneId.systemDefault()));
-            tr.setDurationMs(endMillis - startMillis);
-            testResultService.saveTestResult(tr);
-        } catch (Exception e) {
-            System.out.println("[ERROR] Failed to save test result to DB: " + e.getMessage());
-        }
+    /** Writes reports and DB rows for records collected outside TestNG's reporter callback (e.g. sharded runs). */
+    public void writeReport(String executionId, List<ReportRecord> records, Map<String, String> summary) {
+        writeReport(executionId, sink -> {
+            for (ReportRecord record : records) {
+                sink.accept(record);
+            }
+        }, summary);
     }
 
-    private Map<String, String> mapResult(org.testng.ITestResult tr, String suiteName, String status) {
-        Map<String, String> m = new HashMap<>();
-        m.put("TestCaseId", tr.getMethod().getMethodName());
-        m.put("Name", tr.getMethod().getDescription() != null ? tr.getMethod().getDescription() : tr.getMethod().getMethodName());
-        m.put("Suite", suiteName);
-        m.put("Status", status);
-        
-        // Keep original numeric timestamps for database
-        m.put("StartTime", String.valueOf(tr.getStartMillis()));
-        m.put("EndTime", String.valueOf(tr.getEndMillis()));
-        m.put("Duration", String.valueOf(tr.getEndMillis() - tr.getStartMillis()));
-        
-        // Add formatted timestamps for HTML display only
-        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        m.put("StartTimeFormatted", sdf.format(new java.util.Date(tr.getStartMillis())));
-        m.put("EndTimeFormatted", sdf.format(new java.util.Date(tr.getEndMillis())));
-        m.put("DurationFormatted", String.valueOf(tr.getEndMillis() - tr.getStartMillis()) + "ms");
-        
-        Object artifactPath = tr.getAttribute("artifactPath");
-        m.put("ArtifactLink", artifactPath != null ? artifactPath.toString() : "");
-        Throwable t = tr.getThrowable();
-        m.put("ErrorMessage", t != null ? t.getMessage() : "");
-        return m;
+    /** Writes report files only, for records that are already stored (e.g. the merged view of a rerun). */
+    public void writeReportFiles(Path reportDir, List<ReportRecord> records, Map<String, String> summary) {
+        writeReport(null, reportDir, sink -> {
+            for (ReportRecord record : records) {
+                sink.accept(record);
+            }
+        }, summary);
     }
 
-    private void generateHtmlReport(List<Map<String, String>> results, String filePath) {
-        try (FileWriter fw = new FileWriter(filePath)) {
-            fw.write("<html><head><title>Test Report</title></head><body>");
-            fw.write("<h1>Test Report</h1><table border='1'><tr>");
-            for (String col : new String[]{"TestCaseId","Name","Suite","Status","StartTime","EndTime","Duration","ArtifactLink","ErrorMessage"}) {
-                fw.write("<th>" + col + "</th>");
-            }
-            fw.write("</tr>");
-            for (Map<String, String> row : results) {
-                fw.write("<tr>");
-                for (String col : new String[]{"TestCaseId","Name","Suite","Status","StartTime","EndTime","Duration","ArtifactLink","ErrorMessage"}) {
-                    if (col.equals("ArtifactLink") && !row.get(col).isEmpty()) {
-                        fw.write("<td><a href='" + row.get(col) + "'>Download</a></td>");
-                    } else if (col.equals("StartTime")) {
-                        fw.write("<td>" + row.get("StartTimeFormatted") + "</td>");
-                    } else if (col.equals("EndTime")) {
-                        fw.write("<td>" + row.get("EndTimeFormatted") + "</td>");
-                    } else if (col.equals("Duration")) {
-                        fw.write("<td>" + row.get("DurationFormatted") + "</td>");
-                    } else {
-                        fw.write("<td>" + row.get(col) + "</td>");
+    private void writeReport(String executionId, RecordSource source, Map<String, String> summary) {
+        // Artifacts are written asynchronously; make sure the linked files exist before reporting
+        ArtifactCapture.Flushed artifacts = ArtifactCapture.get().flush(executionId);
+        System.out.println("[DEBUG] Artifacts flushed: " + artifacts.written().size());
+        if (artifacts.missing().isEmpty()) {
+            writeReport(executionId, Paths.get("reports", executionId), source, summary);
+            return;
+        }
+        Map<String, String> withMissing = new LinkedHashMap<>(summary);
+        withMissing.put("Missing artifacts", String.valueOf(artifacts.missing().size()));
+        writeReport(executionId, Paths.get("reports", executionId),
+                sink -> source.emit(record -> sink.accept(record.withMissingArtifacts(artifacts.missing()))), withMissing);
+    }
+
+    // executionId == null: files only, no DB rows
+    private void writeReport(String executionId, Path reportDir, RecordSource source, Map<String, String> summary) {
+        long startNanos = System.nanoTime();
+        System.out.println("[DEBUG] Report folder: " + reportDir.toAbsolutePath());
+        // Stream every result once: into the DB write-behind buffer and the HTML/CSV/JUnit writers.
+        // DB rows don't depend on the files: a report that can't be written still persists every result
+        StreamingReportWriter opened = null;
+        try {
+            opened = new StreamingReportWriter(reportDir);
+        } catch (IOException e) {
+            System.out.println("[ERROR] Failed to open report files: " + e.getMessage());
+        }
+        StreamingReportWriter writer = opened;
+        AtomicBoolean filesFailed = new AtomicBoolean(writer == null);
+        try {
+            source.emit(record -> {
+                if (executionId != null) saveTestResultToDb(record, executionId);
+                if (filesFailed.get()) return;
+                try {
+                    writer.write(record);
+                } catch (IOException | RuntimeException e) {
+                    filesFailed.set(true);
+                    System.out.println("[ERROR] Failed to write reports: " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            System.out.println("[ERROR] Failed to collect results: " + e.getMessage());
+        }
+        if (writer != null) {
+            try {
+                if (!filesFailed.get()) {
+                    for (Map.Entry<String, String> entry : summary.entrySet()) {
+                        writer.addSummary(entry.getKey(), entry.getValue());
                     }
+                    System.out.println("[DEBUG] Wrote " + writer.getCount() + " results to reports");
                 }
-                fw.write("</tr>");
+                writer.close();
+            } catch (IOException e) {
+                System.out.println("[ERROR] Failed to write reports: " + e.getMessage());
             }
-            fw.write("</table></body></html>");
-        } catch (IOException e) { e.printStackTrace(); }
+        }
+        if (executionMetrics != null) {
+            executionMetrics.recordReport(System.nanoTime() - startNanos);
+        }
     }
 
-    private void generateCsvReport(List<Map<String, String>> results, String filePath) {
-        try (FileWriter fw = new FileWriter(filePath)) {
-            String[] cols = {"TestCaseId","Name","Suite","Status","StartTime","EndTime","Duration","ArtifactLink","ErrorMessage"};
-            fw.write(String.join(",", cols) + "\n");
-            for (Map<String, String> row : results) {
-                for (int i = 0; i < cols.length; i++) {
-                    fw.write(row.get(cols[i]).replaceAll(",", " "));
-                    if (i < cols.length - 1) fw.write(",");
-                }
-                fw.write("\n");
-            }
-        } catch (IOException e) { e.printStackTrace(); }
+    private void write(RecordSink sink, Set<ITestResult> results, String suiteName, String status) throws IOException {
+        for (ITestResult tr : results) {
+            sink.accept(ReportRecord.from(tr, suiteName, status));
+        }
     }
 
-    private void generateJUnitXmlReport(List<Map<String, String>> results, String filePath) {
-        try (FileWriter fw = new FileWriter(filePath)) {
-            fw.write("<testsuite>");
-            for (Map<String, String> row : results) {
-                fw.write("<testcase classname='" + row.get("Suite") + "' name='" + row.get("TestCaseId") + "'>");
-                if (!row.get("ErrorMessage").isEmpty()) {
-                    fw.write("<failure message='" + row.get("ErrorMessage") + "'/>");
-                }
-                if (!row.get("ArtifactLink").isEmpty()) {
-                    fw.write("<system-out>Artifact: " + row.get("ArtifactLink") + "</system-out>");
-                }
-                fw.write("</testcase>");
-            }
-            fw.write("</testsuite>");
-        } catch (IOException e) { e.printStackTrace(); }
+    private interface RecordSink {
+        void accept(ReportRecord record) throws IOException;
+    }
+
+    private interface RecordSource {
+        void emit(RecordSink sink) throws IOException;
+    }
+
+    private void saveTestResultToDb(ReportRecord r, String executionId) {
+        try {
+            if (testResultWriteBehind == null) return;
+            TestResult tr = new TestResult();
+            tr.setExecutionId(executionId);
+            tr.setTestName(r.testCaseId());
+            tr.setClassName(r.className().isEmpty() ? null : r.className());
+            tr.setParameterIndex(r.parameterIndex());
+            tr.setSuiteName(r.suite());
+            tr.setStatus(r.status());
+            tr.setArtifactLink(r.artifactLink());
+            tr.setErrorMessage(r.errorMessage());
+            tr.setStartTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(r.startMillis()), ZoneId.systemDefault()));
+            tr.setEndTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(r.endMillis()), ZoneId.systemDefault()));
+            tr.setDurationMs(r.durationMs());
+            testResultWriteBehind.enqueue(tr);
+        } catch (Exception e) {
+            System.out.println("[ERROR] Failed to save test result to DB: " + e.getMessage());
+        }
     }
 }
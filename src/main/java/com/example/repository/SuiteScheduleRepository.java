@@ -0,0 +1,16 @@
+package com.example.repository;
+
+import com.example.model.SuiteSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SuiteScheduleRepository extends JpaRepository<SuiteSchedule, Long> {
+    Optional<SuiteSchedule> findByName(String name);
+
+    List<SuiteSchedule> findByEnabledTrueAndNextRunAtLessThanEqualOrderByNextRunAtAsc(LocalDateTime now);
+}
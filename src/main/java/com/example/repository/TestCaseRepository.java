@@ -1,9 +1,32 @@
 package com.example.repository;
 
 import com.example.model.TestCase;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface TestCaseRepository extends JpaRepository<TestCase, Long> {
+    String FILTER = "(:type is null or c.type = :type) and (:status is null or c.status = :status)";
+
+    @Query("select c from TestCase c where c.id > :afterId and " + FILTER + " order by c.id")
+    List<TestCase> findPageAfter(@Param("afterId") long afterId,
+                                 @Param("type") String type,
+                                 @Param("status") String status,
+                                 Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from TestCase c where " + FILTER + " order by c.id")
+    Stream<TestCase> streamFiltered(@Param("type") String type, @Param("status") String status);
 }
@@ -0,0 +1,15 @@
+package com.example.repository;
+
+import com.example.model.TestExecution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TestExecutionRepository extends JpaRepository<TestExecution, Long> {
+    Optional<TestExecution> findByExecutionId(String executionId);
+
+    List<TestExecution> findByRerunOf(String rerunOf);
+}
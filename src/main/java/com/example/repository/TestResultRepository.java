@@ -1,9 +1,76 @@
 package com.example.repository;
 
 import com.example.model.TestResult;
+import com.example.service.TestResultExportRow;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface TestResultRepository extends JpaRepository<TestResult, Long> {
+    String FILTER = "(:suite is null or r.suiteName = :suite)"
+            + " and (:status is null or r.status = :status)"
+            + " and (:executionId is null or r.executionId = :executionId)"
+            + " and (:from is null or r.startTime >= :from)"
+            + " and (:to is null or r.startTime < :to)";
+
+    /** Average duration per test since a cutoff; served by the test_name+start_time index. */
+    interface DurationStat {
+        String getClassName();
+        String getTestName();
+        Double getAvgDurationMs();
+        Long getRuns();
+    }
+
+    @Query("select r.className as className, r.testName as testName, avg(r.durationMs) as avgDurationMs, count(r) as runs"
+            + " from TestResult r where r.startTime >= :since and r.durationMs is not null and r.status <> 'SKIPPED'"
+            + " group by r.className, r.testName")
+    List<DurationStat> findDurationStatsSince(@Param("since") LocalDateTime since);
+
+    List<TestResult> findByExecutionIdIn(List<String> executionIds);
+
+    /** Keyset page: rows after the cursor id, ordered by id; the page size comes from the Pageable. */
+    @Query("select r from TestResult r where r.id > :afterId and " + FILTER + " order by r.id")
+    List<TestResult> findPageAfter(@Param("afterId") long afterId,
+                                   @Param("suite") String suite,
+                                   @Param("status") String status,
+                                   @Param("executionId") String executionId,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   Pageable pageable);
+
+    /** Forward-only cursor; Integer.MIN_VALUE makes Connector/J stream rows instead of buffering the result set. */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r from TestResult r where " + FILTER + " order by r.id")
+    Stream<TestResult> streamFiltered(@Param("suite") String suite,
+                                      @Param("status") String status,
+                                      @Param("executionId") String executionId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    /** As streamFiltered, but selecting flat export rows; r.testCase.id reads the FK column without a join. */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.service.TestResultExportRow(r.id, r.testCase.id, r.executionId, r.testName, r.className,"
+            + " r.parameterIndex, r.suiteName, r.status, r.startTime, r.endTime, r.durationMs, r.artifactLink, r.errorMessage)"
+            + " from TestResult r where " + FILTER + " order by r.id")
+    Stream<TestResultExportRow> streamExportRows(@Param("suite") String suite,
+                                                 @Param("status") String status,
+                                                 @Param("executionId") String executionId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
 }
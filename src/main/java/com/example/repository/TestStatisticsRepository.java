@@ -0,0 +1,24 @@
+package com.example.repository;
+
+import com.example.model.TestStatistics;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TestStatisticsRepository extends JpaRepository<TestStatistics, Long> {
+    /** Rows of the given tests, locked so concurrent writers fold their results in one after the other. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from TestStatistics s where s.suiteName in :suites and s.testName in :tests")
+    List<TestStatistics> findForUpdate(@Param("suites") Collection<String> suites, @Param("tests") Collection<String> tests);
+
+    Page<TestStatistics> findBySuiteName(String suiteName, Pageable pageable);
+}
@@ -0,0 +1,245 @@
+package com.example.scheduler;
+
+import com.example.report.SuiteReportGenerator;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive number of concurrently running test methods for one run.
+ * TestNG's pool is sized to the cap (the user's maxParallelTests or the suite thread-count);
+ * this listener makes test invocations wait for one of `limit` slots, and a sampler moves
+ * the limit AIMD-style: +1 while slots are saturated and the host is comfortable, times
+ * decreaseFactor when CPU, available memory, browsers held by this run's slots or test latency
+ * signal overload. Browsers on the whole host only hold back growth.
+ */
+public class AdaptiveConcurrencyController implements IInvokedMethodListener, ISuiteListener, AutoCloseable {
+    /** Thresholds and step sizes; see the adaptive.* properties. */
+    public record Policy(long sampleIntervalMs, double cpuHigh, double cpuLow, double minFreeMemoryRatio,
+                         int maxBrowsers, double latencyRatioMax, double decreaseFactor) { }
+
+    private static final double LATENCY_ALPHA = 0.3;
+
+    private final int cap;
+    private final Policy policy;
+    private final ScheduledExecutorService sampler;
+
+    private final Object lock = new Object();
+    private int limit;
+    private int inUse;
+    private int minLimit;
+    private int maxLimit;
+    private long lastDecrease;
+    // Slots held by UI classes, i.e. browsers this run's slots hold
+    private int browsersHeld;
+
+    private final Map<Thread, TestLane> held = new ConcurrentHashMap<>();
+    private final Map<String, TestLane> lanes = new ConcurrentHashMap<>();
+
+    // EWMA of actual/expected test duration; 1.0 means tests run as fast as their history says
+    private volatile double latencyRatio = 1.0;
+
+    public AdaptiveConcurrencyController(int cap, int initialLimit, Policy policy) {
+        this.cap = Math.max(1, cap);
+        this.policy = policy;
+        this.limit = Math.max(1, Math.min(this.cap, initialLimit));
+        this.minLimit = limit;
+        this.maxLimit = limit;
+        this.sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "adaptive-concurrency");
+            t.setDaemon(true);
+            return t;
+        });
+        sampler.scheduleWithFixedDelay(this::sample, policy.sampleIntervalMs(), policy.sampleIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes a slot at the first @BeforeMethod or test method of an invocation, before a UI
+     * test borrows its browser, and keeps it until the test method is done; a slot left by a
+     * failed @BeforeMethod is reused by the next test on that thread.
+     */
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        ITestNGMethod m = method.getTestMethod();
+        if (!method.isTestMethod() && !m.isBeforeMethodConfiguration()) return;
+        Thread thread = Thread.currentThread();
+        if (held.containsKey(thread)) return;
+        String className = m.getRealClass().getName();
+        TestLane lane = lanes.computeIfAbsent(className,
+                c -> TestLane.of(testResult.getTestContext().getCurrentXmlTest(), c));
+        synchronized (lock) {
+            while (inUse >= limit) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            inUse++;
+            if (lane == TestLane.UI) browsersHeld++;
+        }
+        held.put(thread, lane);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) return;
+        TestLane lane = held.remove(Thread.currentThread());
+        if (lane == null) return;
+        release(lane);
+        String key = DurationHistory.key(testResult.getTestClass().getName(), testResult.getMethod().getMethodName());
+        Long expected = DurationHistory.estimate(List.of(key)).get(key);
+        long actual = testResult.getEndMillis() - testResult.getStartMillis();
+        if (expected != null && expected > 0 && actual > 0) {
+            latencyRatio = LATENCY_ALPHA * ((double) actual / expected) + (1 - LATENCY_ALPHA) * latencyRatio;
+        }
+    }
+
+    void sample() {
+        try {
+            double cpu = cpuLoad();
+            double freeMemory = freeMemoryRatio();
+            // Host-wide browsers (idle pooled sessions, other runs and JVMs) don't drop when this run
+            // shrinks, so they only stop growth; shrinking reacts to the browsers this run's slots hold
+            int hostBrowsers = liveBrowsers();
+            double latency = latencyRatio;
+            synchronized (lock) {
+                int browsers = browsersHeld;
+                boolean overloaded = cpu > policy.cpuHigh() || freeMemory < policy.minFreeMemoryRatio()
+                        || browsers > policy.maxBrowsers() || latency > policy.latencyRatioMax();
+                int next = limit;
+                long now = System.currentTimeMillis();
+                // One decrease per two sample periods, so the previous cut can take effect first
+                if (overloaded && now - lastDecrease >= 2 * policy.sampleIntervalMs()) {
+                    next = Math.max(1, (int) Math.floor(limit * policy.decreaseFactor()));
+                    lastDecrease = now;
+                } else if (!overloaded && inUse >= limit && cpu < policy.cpuLow() && limit < cap
+                        && hostBrowsers <= policy.maxBrowsers()) {
+                    next = limit + 1;
+                }
+                if (next != limit) {
+                    System.out.println("[DEBUG] Adaptive test slots " + limit + " -> " + next + " (cpu=" + format(cpu)
+                            + ", freeMem=" + format(freeMemory) + ", browsers=" + browsers + "/" + hostBrowsers + " host, latencyRatio=" + format(latency) + ")");
+                    limit = next;
+                    minLimit = Math.min(minLimit, limit);
+                    maxLimit = Math.max(maxLimit, limit);
+                    lock.notifyAll();
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("[ERROR] Adaptive concurrency sample failed: " + e.getMessage());
+        }
+    }
+
+    private void release(TestLane lane) {
+        synchronized (lock) {
+            inUse--;
+            if (lane == TestLane.UI) browsersHeld--;
+            lock.notifyAll();
+        }
+    }
+
+    public int getLimit() {
+        synchronized (lock) {
+            return limit;
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        synchronized (lock) {
+            suite.setAttribute(SuiteReportGenerator.SUMMARY_ATTRIBUTE_PREFIX + "Adaptive test slots",
+                    "min " + minLimit + ", max " + maxLimit + ", final " + limit + " (cap " + cap + ")");
+        }
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+        for (Thread thread : new ArrayList<>(held.keySet())) {
+            TestLane lane = held.remove(thread);
+            if (lane != null) release(lane);
+        }
+    }
+
+    /** System-wide CPU load 0..1; falls back to load average per core. */
+    static double cpuLoad() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sun) {
+            double load = sun.getCpuLoad();
+            if (load >= 0) return load;
+        }
+        double avg = os.getSystemLoadAverage();
+        return avg < 0 ? 0 : Math.min(1.0, avg / os.getAvailableProcessors());
+    }
+
+    /**
+     * Available physical memory as a fraction of total. On Linux this is MemAvailable from
+     * /proc/meminfo, which counts reclaimable page cache: MemFree (what the MXBean reports) sits
+     * low on any busy host without real pressure. 1.0 when the platform does not report it.
+     */
+    static double freeMemoryRatio() {
+        Path meminfo = Paths.get("/proc/meminfo");
+        if (Files.isReadable(meminfo)) {
+            try {
+                long total = -1;
+                long available = -1;
+                for (String line : Files.readAllLines(meminfo)) {
+                    if (line.startsWith("MemTotal:")) total = meminfoKb(line);
+                    else if (line.startsWith("MemAvailable:")) available = meminfoKb(line);
+                }
+                if (total > 0 && available >= 0) return (double) available / total;
+            } catch (IOException | NumberFormatException e) {
+                // fall back to the MXBean
+            }
+        }
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean sun) {
+            long total = sun.getTotalMemorySize();
+            if (total > 0) return (double) sun.getFreeMemorySize() / total;
+        }
+        return 1.0;
+    }
+
+    // "MemAvailable:    5527004 kB"
+    private static long meminfoKb(String line) {
+        return Long.parseLong(line.substring(line.indexOf(':') + 1).trim().split("\\s+")[0]);
+    }
+
+    /** Top-level Chrome/Chromium browser processes (helpers started with --type=... are not counted). */
+    static int liveBrowsers() {
+        return (int) ProcessHandle.allProcesses()
+                .filter(p -> p.info().command().map(c -> {
+                    String name = c.substring(c.lastIndexOf('/') + 1);
+                    return name.equals("chrome") || name.startsWith("chromium") || name.equals("google-chrome");
+                }).orElse(false))
+                .filter(p -> p.info().arguments().map(args -> {
+                    for (String a : args) {
+                        if (a.startsWith("--type=")) return false;
+                    }
+                    return true;
+                }).orElse(true))
+                .count();
+    }
+
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+}
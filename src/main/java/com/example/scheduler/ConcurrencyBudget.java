@@ -0,0 +1,155 @@
+package com.example.scheduler;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide budget of test slots shared by all executions.
+ * A running test holds its lane's weight (a UI test with its browser costs more than an API
+ * call). When slots free up they go to the waiter whose execution currently holds the least,
+ * oldest waiter first; that waiter blocks the ones behind it until its full weight is free,
+ * so heavy UI tests are not starved by a stream of light API tests.
+ */
+public class ConcurrencyBudget {
+    private record Waiter(String executionId, int weight) { }
+
+    private final int capacity;
+    private final int uiWeight;
+    private final int apiWeight;
+
+    private final Object lock = new Object();
+    private final List<Waiter> waiters = new ArrayList<>();
+    private final Map<String, Integer> heldByExecution = new HashMap<>();
+    private int available;
+
+    public ConcurrencyBudget(int capacity, int uiWeight, int apiWeight) {
+        this.capacity = Math.max(1, capacity);
+        this.uiWeight = Math.max(1, uiWeight);
+        this.apiWeight = Math.max(1, apiWeight);
+        this.available = this.capacity;
+    }
+
+    /** Blocks until weight slots are granted to executionId; returns the weight actually held. */
+    public int acquire(String executionId, TestLane lane) throws InterruptedException {
+        int weight = Math.min(capacity, lane == TestLane.UI ? uiWeight : apiWeight);
+        Waiter waiter = new Waiter(executionId, weight);
+        synchronized (lock) {
+            waiters.add(waiter);
+            try {
+                while (next() != waiter || available < weight) {
+                    lock.wait();
+                }
+            } finally {
+                waiters.remove(waiter);
+                lock.notifyAll();
+            }
+            available -= weight;
+            heldByExecution.merge(executionId, weight, Integer::sum);
+            return weight;
+        }
+    }
+
+    /** Grants weight slots only when nobody is queued and they are free now; returns the weight held, or 0. */
+    public int tryAcquire(String executionId, TestLane lane) {
+        int weight = Math.min(capacity, lane == TestLane.UI ? uiWeight : apiWeight);
+        synchronized (lock) {
+            if (!waiters.isEmpty() || available < weight) return 0;
+            available -= weight;
+            heldByExecution.merge(executionId, weight, Integer::sum);
+            return weight;
+        }
+    }
+
+    public void release(String executionId, int weight) {
+        synchronized (lock) {
+            available += weight;
+            heldByExecution.computeIfPresent(executionId, (id, held) -> held > weight ? held - weight : null);
+            lock.notifyAll();
+        }
+    }
+
+    // The waiter of the execution holding the fewest slots; earliest arrival on ties
+    private Waiter next() {
+        Waiter best = null;
+        for (Waiter w : waiters) {
+            if (best == null || heldByExecution.getOrDefault(w.executionId(), 0) < heldByExecution.getOrDefault(best.executionId(), 0)) {
+                best = w;
+            }
+        }
+        return best;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getInUse() {
+        synchronized (lock) {
+            return capacity - available;
+        }
+    }
+
+    public int getWaiting() {
+        synchronized (lock) {
+            return waiters.size();
+        }
+    }
+
+    /** A listener drawing one execution's test invocations from this budget. */
+    public Listener listener(String executionId) {
+        return new Listener(executionId);
+    }
+
+    /**
+     * Takes the slot at @BeforeMethod, before a UI test borrows its browser (or at the test
+     * method when there is none) and returns it after the test method. A slot left over by a
+     * failed @BeforeMethod is reused by the next test on that thread; close() returns the rest.
+     */
+    public class Listener implements IInvokedMethodListener, AutoCloseable {
+        private final String executionId;
+        private final Map<Thread, Integer> held = new ConcurrentHashMap<>();
+        private final Map<String, TestLane> lanes = new ConcurrentHashMap<>();
+
+        private Listener(String executionId) {
+            this.executionId = executionId;
+        }
+
+        @Override
+        public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+            ITestNGMethod m = method.getTestMethod();
+            if (!method.isTestMethod() && !m.isBeforeMethodConfiguration()) return;
+            if (held.containsKey(Thread.currentThread())) return;
+            String className = m.getRealClass().getName();
+            TestLane lane = lanes.computeIfAbsent(className,
+                    c -> TestLane.of(testResult.getTestContext().getCurrentXmlTest(), c));
+            try {
+                held.put(Thread.currentThread(), acquire(executionId, lane));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+            if (!method.isTestMethod()) return;
+            Integer weight = held.remove(Thread.currentThread());
+            if (weight != null) release(executionId, weight);
+        }
+
+        @Override
+        public void close() {
+            for (Thread thread : new ArrayList<>(held.keySet())) {
+                Integer weight = held.remove(thread);
+                if (weight != null) release(executionId, weight);
+            }
+        }
+    }
+}
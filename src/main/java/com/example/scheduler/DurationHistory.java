@@ -0,0 +1,71 @@
+package com.example.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expected test durations used to order methods longest-first, keyed "className#method".
+ * Loaded by SuiteExecutionService before each run from the test_statistics medians, or from the
+ * recent test_result history while there are no statistics yet; static because TestNG
+ * instantiates the interceptor itself when it is declared in a suite XML.
+ * History recorded without a class name is keyed by the bare method name and only used for
+ * methods with no history of their own. Tests without history fall back to the median of their
+ * class, then of all known tests, then to the configured default.
+ */
+public final class DurationHistory {
+    private static volatile Map<String, Long> durations = Collections.emptyMap();
+    private static volatile long defaultMs = 5000;
+
+    private DurationHistory() { }
+
+    public static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    public static void update(Map<String, Long> recent, long defaultDurationMs) {
+        durations = Collections.unmodifiableMap(new HashMap<>(recent));
+        defaultMs = defaultDurationMs;
+    }
+
+    /** Expected duration of each of the given key()s, for the methods of one run. */
+    public static Map<String, Long> estimate(Collection<String> tests) {
+        Map<String, Long> known = durations;
+        Map<String, Long> found = new HashMap<>();
+        Map<String, List<Long>> byClass = new HashMap<>();
+        List<Long> all = new ArrayList<>();
+        for (String test : tests) {
+            Long d = known.get(test);
+            if (d == null) d = known.get(test.substring(test.lastIndexOf('#') + 1));
+            if (d != null) {
+                found.put(test, d);
+                byClass.computeIfAbsent(classOf(test), k -> new ArrayList<>()).add(d);
+                all.add(d);
+            }
+        }
+        long globalDefault = all.isEmpty() ? medianOf(new ArrayList<>(known.values()), defaultMs) : medianOf(all, defaultMs);
+        Map<String, Long> estimates = new HashMap<>();
+        for (String test : tests) {
+            Long d = found.get(test);
+            if (d == null) {
+                List<Long> siblings = byClass.get(classOf(test));
+                d = siblings != null ? medianOf(siblings, globalDefault) : globalDefault;
+            }
+            estimates.put(test, d);
+        }
+        return estimates;
+    }
+
+    private static String classOf(String test) {
+        return test.substring(0, Math.max(test.lastIndexOf('#'), 0));
+    }
+
+    private static long medianOf(List<Long> values, long fallback) {
+        if (values.isEmpty()) return fallback;
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.scheduler;
+
+import org.testng.IDynamicGraph;
+import org.testng.ISuite;
+import org.testng.ITestNGMethod;
+import org.testng.internal.thread.graph.GraphThreadPoolExecutor;
+import org.testng.thread.IExecutorFactory;
+import org.testng.thread.ITestNGThreadPoolExecutor;
+import org.testng.thread.IThreadWorkerFactory;
+
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestNG executor factory that keeps TestNG's graph-aware pool (dependencies, priorities)
+ * but creates its threads from the given factory, e.g. virtual threads for the API lane.
+ */
+public class LaneExecutorFactory implements IExecutorFactory {
+    private final ThreadFactory threadFactory;
+
+    public LaneExecutorFactory(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newSuiteExecutor(String name, IDynamicGraph<ISuite> graph, IThreadWorkerFactory<ISuite> factory,
+                                                      int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                                      BlockingQueue<Runnable> workQueue, Comparator<ISuite> comparator) {
+        GraphThreadPoolExecutor<ISuite> executor = new GraphThreadPoolExecutor<>(name, graph, factory,
+                corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, comparator);
+        executor.setThreadFactory(threadFactory);
+        return executor;
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newTestMethodExecutor(String name, IDynamicGraph<ITestNGMethod> graph, IThreadWorkerFactory<ITestNGMethod> factory,
+                                                           int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                                           BlockingQueue<Runnable> workQueue, Comparator<ITestNGMethod> comparator) {
+        GraphThreadPoolExecutor<ITestNGMethod> executor = new GraphThreadPoolExecutor<>(name, graph, factory,
+                corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, comparator);
+        executor.setThreadFactory(threadFactory);
+        return executor;
+    }
+}
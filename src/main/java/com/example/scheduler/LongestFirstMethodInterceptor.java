@@ -0,0 +1,107 @@
+package com.example.scheduler;
+
+import com.example.report.SuiteReportGenerator;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Orders each &lt;test&gt;'s methods longest-first (LPT) using DurationHistory, so long UI flows
+ * start early instead of stretching the end of a parallel run.
+ * Records the makespan LPT predicts for the test's thread count and, when the suite finishes,
+ * the actual makespan; both appear in the report summary.
+ */
+public class LongestFirstMethodInterceptor implements IMethodInterceptor, ISuiteListener {
+    private static final String PREDICTED_ATTRIBUTE_PREFIX = "lpt.predicted.";
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Map<IMethodInstance, String> keys = new LinkedHashMap<>();
+        for (IMethodInstance m : methods) {
+            keys.put(m, DurationHistory.key(m.getMethod().getTestClass().getName(), m.getMethod().getMethodName()));
+        }
+        Map<String, Long> estimates = DurationHistory.estimate(keys.values());
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.comparingLong((IMethodInstance m) -> estimates.get(keys.get(m))).reversed());
+
+        // parallel="classes"/"instances" runs each class's methods in sequence, so the classes are the jobs
+        XmlTest xmlTest = context.getCurrentXmlTest();
+        boolean perClass = xmlTest.getParallel() == XmlSuite.ParallelMode.CLASSES || xmlTest.getParallel() == XmlSuite.ParallelMode.INSTANCES;
+        Map<String, Long> jobs = new LinkedHashMap<>();
+        for (IMethodInstance m : ordered) {
+            String key = keys.get(m);
+            jobs.merge(perClass ? m.getMethod().getTestClass().getName() : key, estimates.get(key), Long::sum);
+        }
+        List<Long> durations = new ArrayList<>(jobs.values());
+        durations.sort(Comparator.reverseOrder());
+        // Keyed by <test> name so running the interceptor twice (XML + programmatic) does not double count
+        context.getSuite().setAttribute(PREDICTED_ATTRIBUTE_PREFIX + context.getName(),
+                makespan(durations, threadCount(xmlTest)));
+        return ordered;
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        long predicted = 0;
+        for (String name : Set.copyOf(suite.getAttributeNames())) {
+            if (name.startsWith(PREDICTED_ATTRIBUTE_PREFIX)) {
+                predicted += (Long) suite.getAttribute(name);
+            }
+        }
+        long firstStart = Long.MAX_VALUE;
+        long lastEnd = Long.MIN_VALUE;
+        for (ISuiteResult result : suite.getResults().values()) {
+            ITestContext context = result.getTestContext();
+            for (var results : List.of(context.getPassedTests(), context.getFailedTests(), context.getSkippedTests())) {
+                for (ITestResult tr : results.getAllResults()) {
+                    firstStart = Math.min(firstStart, tr.getStartMillis());
+                    lastEnd = Math.max(lastEnd, tr.getEndMillis());
+                }
+            }
+        }
+        if (predicted > 0) {
+            suite.setAttribute(SuiteReportGenerator.SUMMARY_ATTRIBUTE_PREFIX + "Predicted makespan (LPT)", formatSeconds(predicted));
+        }
+        if (lastEnd >= firstStart) {
+            suite.setAttribute(SuiteReportGenerator.SUMMARY_ATTRIBUTE_PREFIX + "Actual makespan", formatSeconds(lastEnd - firstStart));
+        }
+    }
+
+    /** Greedy LPT: each duration (longest first) goes to the least loaded thread; returns the busiest thread's load. */
+    static long makespan(List<Long> longestFirst, int threads) {
+        PriorityQueue<Long> loads = new PriorityQueue<>();
+        for (int i = 0; i < Math.max(1, threads); i++) {
+            loads.add(0L);
+        }
+        long max = 0;
+        for (long d : longestFirst) {
+            long load = loads.poll() + d;
+            max = Math.max(max, load);
+            loads.add(load);
+        }
+        return max;
+    }
+
+    private static int threadCount(XmlTest test) {
+        XmlSuite.ParallelMode mode = test.getParallel();
+        return mode == null || !mode.isParallel() || mode == XmlSuite.ParallelMode.TESTS ? 1 : test.getThreadCount();
+    }
+
+    private static String formatSeconds(long ms) {
+        return String.format("%.1f s", ms / 1000.0);
+    }
+}
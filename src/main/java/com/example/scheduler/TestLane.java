@@ -0,0 +1,41 @@
+package com.example.scheduler;
+
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Field;
+
+/**
+ * Execution lane of a test class. UI tests hold browser sessions and get a small bounded
+ * pool; API tests are I/O bound and get a wide pool on virtual threads.
+ */
+public enum TestLane {
+    API,
+    UI;
+
+    /** Suite/test parameter that forces a lane ("api" or "ui") for every class in a &lt;test&gt;. */
+    public static final String PARAMETER = "lane";
+
+    /**
+     * The &lt;test&gt;'s lane parameter wins; otherwise a class is UI when it declares a
+     * WebDriver field (directly or as e.g. ThreadLocal&lt;WebDriver&gt;) or lives in a .ui. package.
+     */
+    public static TestLane of(XmlTest test, String className) {
+        String forced = test.getParameter(PARAMETER);
+        if (forced != null && !forced.isBlank()) {
+            return valueOf(forced.trim().toUpperCase());
+        }
+        try {
+            Class<?> cls = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+            for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (field.getGenericType().getTypeName().contains("org.openqa.selenium.WebDriver")) {
+                        return UI;
+                    }
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            // fall through to the package convention
+        }
+        return className.contains(".ui.") ? UI : API;
+    }
+}
@@ -1,54 +1,103 @@
 package com.example.scheduler;
 
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.stereotype.Service;
 import org.springframework.stereotype.Component;
+import com.example.controller.ExecutionResponses;
+import com.example.service.ExecutionRecord;
+import com.example.service.ExecutionRegistry;
+import com.example.service.SuiteExecutionEngine;
+import com.example.service.SuiteScheduleService;
+import com.example.model.SuiteSchedule;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @EnableScheduling
 @RestController
 @RequestMapping("/schedule")
 public class TestSuiteScheduler {
-    private final Map<String, ExecutionStatus> executions = new HashMap<>();
+    @Autowired
+    private ExecutionRegistry executionRegistry;
 
-    public enum ExecutionStatus {
-        QUEUED, RUNNING, COMPLETED, FAILED
-    }
+    @Autowired
+    private SuiteExecutionEngine suiteExecutionEngine;
+
+    @Autowired
+    private SuiteScheduleService suiteScheduleService;
 
+    /**
+     * runNow queues the suite right away (interactive priority): 202, or 429/503 like
+     * POST /api/schedule/run when the engine rejects it. Otherwise the request is stored
+     * as a schedule: recurring with cron (e.g. "0 0 2 * * *"), or once at scheduledTime
+     * (ISO-8601, with or without offset; local time when none). Scheduled runs have lower priority.
+     */
     @PostMapping("/run")
-    public ResponseEntity<Map<String, String>> scheduleRun(@RequestBody ScheduleRequest request) {
-        String executionId = UUID.randomUUID().toString();
-        executions.put(executionId, ExecutionStatus.QUEUED);
-        // Logic to queue and trigger suite (to be implemented)
+    public ResponseEntity<?> scheduleRun(@RequestBody ScheduleRequest request) {
         Map<String, String> resp = new HashMap<>();
-        resp.put("executionId", executionId);
-        resp.put("status", "QUEUED");
-        return ResponseEntity.ok(resp);
+        if (request.runNow) {
+            if (request.suiteId == null || request.suiteId.isBlank()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "suiteId is required"));
+            }
+            try {
+                resp.put("executionId", triggerSuite(request.suiteId, request.maxParallelTests));
+            } catch (RejectedExecutionException e) {
+                return ExecutionResponses.rejected(suiteExecutionEngine);
+            }
+            resp.put("status", "QUEUED");
+            return ResponseEntity.accepted().body(resp);
+        }
+        SuiteSchedule schedule;
+        try {
+            LocalDateTime runAt = request.scheduledTime != null ? parseTime(request.scheduledTime) : null;
+            schedule = suiteScheduleService.create(request.name, request.suiteId, request.cron, runAt, request.maxParallelTests);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        resp.put("scheduleId", String.valueOf(schedule.getId()));
+        resp.put("status", "SCHEDULED");
+        resp.put("nextRunAt", String.valueOf(schedule.getNextRunAt()));
+        return ResponseEntity.status(HttpStatus.CREATED).body(resp);
+    }
+
+    @GetMapping("/schedules")
+    public List<SuiteSchedule> listSchedules() {
+        return suiteScheduleService.list();
+    }
+
+    @DeleteMapping("/schedules/{id}")
+    public ResponseEntity<Void> deleteSchedule(@PathVariable Long id) {
+        return suiteScheduleService.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 
     @GetMapping("/executions/{id}/status")
     public ResponseEntity<Map<String, String>> getExecutionStatus(@PathVariable String id) {
-        ExecutionStatus status = executions.getOrDefault(id, null);
+        ExecutionRecord record = executionRegistry.get(id);
         Map<String, String> resp = new HashMap<>();
         resp.put("executionId", id);
-        resp.put("status", status == null ? "NOT_FOUND" : status.name());
+        resp.put("status", record == null ? "NOT_FOUND" : record.getStatus().name());
         return ResponseEntity.ok(resp);
     }
 
-    // Example scheduled method for nightly run
-    @Scheduled(cron = "0 0 2 * * *") // 2 AM daily
-    public void runNightlySuites() {
-        // Logic to trigger suites at scheduled time
+    // Queue the suite now; maxParallelTests caps concurrently running tests (0 = suite thread-count)
+    public String triggerSuite(String suiteId, int maxParallelTests) {
+        return suiteExecutionEngine.submit(suiteId, maxParallelTests);
     }
 
-    // Placeholder for suite execution logic
-    public void triggerSuite(String suiteId, int maxParallelTests) {
-        // Implement suite execution and update status
+    private static LocalDateTime parseTime(String time) {
+        try {
+            return OffsetDateTime.parse(time).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(time);
+        }
     }
 
     // Request DTO
@@ -56,6 +105,8 @@ public class TestSuiteScheduler {
         public String suiteId;
         public boolean runNow;
         public String scheduledTime;
+        public String cron;
+        public String name;
         public int maxParallelTests;
     }
 }
@@ -0,0 +1,50 @@
+package com.example.service;
+
+import com.example.scheduler.AdaptiveConcurrencyController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates one AdaptiveConcurrencyController per parallel run from the adaptive.* properties.
+ */
+@Component
+public class AdaptiveParallelism {
+    @Value("${adaptive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${adaptive.initial-slots:0}")
+    private int initialSlots;
+
+    @Value("${adaptive.sample-interval-ms:2000}")
+    private long sampleIntervalMs;
+
+    @Value("${adaptive.cpu-high:0.85}")
+    private double cpuHigh;
+
+    @Value("${adaptive.cpu-low:0.60}")
+    private double cpuLow;
+
+    @Value("${adaptive.min-free-memory-ratio:0.10}")
+    private double minFreeMemoryRatio;
+
+    @Value("${adaptive.max-browsers:0}")
+    private int maxBrowsers;
+
+    @Value("${adaptive.latency-ratio-max:2.0}")
+    private double latencyRatioMax;
+
+    @Value("${adaptive.decrease-factor:0.5}")
+    private double decreaseFactor;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** initial-slots 0 starts at half the cap and lets the controller grow from there. */
+    public AdaptiveConcurrencyController newController(int cap) {
+        int initial = initialSlots > 0 ? initialSlots : Math.max(1, cap / 2);
+        int browsers = maxBrowsers > 0 ? maxBrowsers : Runtime.getRuntime().availableProcessors();
+        return new AdaptiveConcurrencyController(cap, initial, new AdaptiveConcurrencyController.Policy(
+                sampleIntervalMs, cpuHigh, cpuLow, minFreeMemoryRatio, browsers, latencyRatioMax, decreaseFactor));
+    }
+}
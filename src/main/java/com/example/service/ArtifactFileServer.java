@@ -0,0 +1,187 @@
+package com.example.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves report and artifact files for the download endpoints.
+ * - ETag/Last-Modified conditional GETs answer 304 without touching the file body
+ * - single byte-range requests answer 206 (screenshots, large logs)
+ * - JSON/HTML/CSV/XML are served gzip-encoded from a .gz sibling written on first request
+ * - bodies go out through Tomcat sendfile when the connector supports it, else FileChannel.transferTo
+ */
+@Component
+public class ArtifactFileServer {
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final Set<String> COMPRESSIBLE = Set.of("application/json", "text/html", "text/csv", "application/xml", "text/xml", "text/plain");
+
+    /**
+     * Serve baseDir/relativePath. Paths escaping baseDir and missing files answer 404.
+     */
+    public void serve(Path baseDir, String relativePath, String downloadName, MediaType contentType,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path base = baseDir.toAbsolutePath().normalize();
+        Path file = base.resolve(relativePath).normalize();
+        if (!file.startsWith(base) || !Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        boolean gzip = isCompressible(contentType)
+                && acceptsGzip(request)
+                && request.getHeader(HttpHeaders.RANGE) == null;
+        Path body = gzip ? gzipSibling(file) : file;
+        BasicFileAttributes attrs = Files.readAttributes(body, BasicFileAttributes.class);
+        long length = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + (gzip ? "-gz" : "") + "\"";
+
+        if (isCompressible(contentType)) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Sets ETag/Last-Modified and answers 304 when the client copy is still current
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setContentType(contentType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + downloadName);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        long start = 0;
+        long end = length; // exclusive
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, etag, lastModified)) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1] + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + parsed[1] + "/" + length);
+            }
+        }
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equalsIgnoreCase(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, body.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(body, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, target);
+            }
+            out.flush();
+        }
+    }
+
+    private static boolean isCompressible(MediaType type) {
+        return COMPRESSIBLE.contains(type.getType() + "/" + type.getSubtype());
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+
+    /** Returns file.gz, (re)writing it atomically when missing or older than the source. */
+    private static Path gzipSibling(Path file) throws IOException {
+        Path gz = file.resolveSibling(file.getFileName() + ".gz");
+        if (Files.exists(gz) && Files.getLastModifiedTime(gz).compareTo(Files.getLastModifiedTime(file)) >= 0) {
+            return gz;
+        }
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".gz.tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+            Files.copy(file, out);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, gz, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return gz;
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        long since;
+        try {
+            since = request.getDateHeader(HttpHeaders.IF_RANGE);
+        } catch (IllegalArgumentException e) {
+            // Malformed date: treat as not matching, so the full representation is served
+            return false;
+        }
+        return since >= 0 && lastModified / 1000 <= since / 1000;
+    }
+
+    /**
+     * Parses a single "bytes=" range into {first, last} (inclusive).
+     * Returns an empty array to serve the whole file (multi-range or other units)
+     * and null when the range cannot be satisfied.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return new long[0];
+        try {
+            long first;
+            long last;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) return null;
+                first = Math.max(0, length - suffix);
+                last = length - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash));
+                String lastPart = spec.substring(dash + 1);
+                last = lastPart.isEmpty() ? length - 1 : Math.min(Long.parseLong(lastPart), length - 1);
+            }
+            if (first >= length || first > last) return null;
+            return new long[]{first, last};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
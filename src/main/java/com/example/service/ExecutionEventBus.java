@@ -0,0 +1,180 @@
+package com.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live progress events of running executions, streamed to Server-Sent Events subscribers.
+ * Test threads only offer events to a bounded queue per subscriber and never wait for the
+ * network: a sender thread drains each queue, and when a slow subscriber's queue is full its
+ * oldest event is dropped. Every event carries the execution's running totals, so a subscriber
+ * that lost events is still up to date with the next one; it is told how many it missed.
+ */
+@Component
+public class ExecutionEventBus {
+    /** One named event with its JSON payload. */
+    private record Event(String name, Map<String, Object> data) { }
+
+    @Value("${events.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    // 0 = the stream stays open until the execution finishes
+    @Value("${events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger senderThreads = new AtomicInteger();
+    private final ExecutorService sender = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "sse-sender-" + senderThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Opens a stream starting with a snapshot of record; finished executions get the snapshot and are closed. */
+    public SseEmitter subscribe(ExecutionRecord record) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        String executionId = record.getExecutionId();
+        Subscriber subscriber = new Subscriber(executionId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.computeIfAbsent(executionId, k -> new CopyOnWriteArrayList<>()).add(subscriber);
+        subscriber.offer(new Event("snapshot", record.toStatusMap()));
+        // Re-checked after registering so a run finishing in between still closes the stream
+        if (record.getStatus().isTerminal()) {
+            subscribers.getOrDefault(executionId, List.of()).remove(subscriber);
+            subscriber.completeWhenDrained();
+        }
+        return emitter;
+    }
+
+    /** Queues an event for every subscriber of the execution; does nothing when nobody listens. */
+    public void publish(String executionId, String name, Map<String, Object> data) {
+        List<Subscriber> list = subscribers.get(executionId);
+        if (list == null || list.isEmpty()) return;
+        Event event = new Event(name, data);
+        for (Subscriber subscriber : list) {
+            subscriber.offer(event);
+        }
+    }
+
+    /** Sends the final status of a finished execution and closes its streams once they are drained. */
+    public void complete(ExecutionRecord record) {
+        List<Subscriber> list = subscribers.remove(record.getExecutionId());
+        if (list == null) return;
+        Event event = new Event("status", record.toStatusMap());
+        for (Subscriber subscriber : list) {
+            subscriber.offer(event);
+            subscriber.completeWhenDrained();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.executionId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (List<Subscriber> list : subscribers.values()) {
+            for (Subscriber subscriber : list) {
+                subscriber.emitter.complete();
+            }
+        }
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    private class Subscriber {
+        private final String executionId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(Math.max(1, subscriberBuffer));
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean completeWhenDrained;
+        private volatile boolean closed;
+
+        Subscriber(String executionId, SseEmitter emitter) {
+            this.executionId = executionId;
+            this.emitter = emitter;
+        }
+
+        // Never blocks the caller: a full queue loses its oldest event
+        void offer(Event event) {
+            if (closed) return;
+            while (!queue.offer(event)) {
+                if (queue.poll() != null) dropped.incrementAndGet();
+            }
+            scheduleDrain();
+        }
+
+        void completeWhenDrained() {
+            completeWhenDrained = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while (!closed && (event = queue.poll()) != null) {
+                    long lost = dropped.getAndSet(0);
+                    if (lost > 0) {
+                        Map<String, Object> data = new LinkedHashMap<>();
+                        data.put("executionId", executionId);
+                        data.put("dropped", lost);
+                        send(new Event("dropped", data));
+                    }
+                    send(event);
+                }
+                if (!closed && completeWhenDrained && queue.isEmpty()) {
+                    closed = true;
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks unregister it
+                closed = true;
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            // An event offered while this drain was finishing would otherwise wait for the next one
+            if (!closed && (!queue.isEmpty() || completeWhenDrained)) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Event event) throws IOException {
+            emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+        }
+    }
+}
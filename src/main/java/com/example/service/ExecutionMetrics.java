@@ -0,0 +1,115 @@
+package com.example.service;
+
+import com.example.scheduler.ConcurrencyBudget;
+import com.example.util.ArtifactCapture;
+import com.example.util.WebDriverSessions;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for suite and test execution, scraped via /actuator/prometheus.
+ * Components that own a gauge's state bind themselves here on startup, so this
+ * class only depends on the MeterRegistry and never creates bean cycles.
+ */
+@Component
+public class ExecutionMetrics {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer persistTimer;
+    private DistributionSummary persistBatchSize;
+    private Timer reportTimer;
+
+    @PostConstruct
+    public void init() {
+        persistTimer = Timer.builder("results.persist")
+                .description("Time to write one batch of test results to the database")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        persistBatchSize = DistributionSummary.builder("results.persist.batch.size")
+                .description("Test results per database batch")
+                .register(meterRegistry);
+        reportTimer = Timer.builder("report.generation")
+                .description("Time to flush artifacts and write HTML/CSV/JUnit reports for a run")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        FunctionCounter.builder("artifacts.bytes.written", ArtifactCapture.get(), ArtifactCapture::getBytesWritten)
+                .description("Bytes of screenshots and API logs written to disk")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("webdriver.sessions", WebDriverSessions::live)
+                .description("Open WebDriver sessions")
+                .tag("state", "live")
+                .register(meterRegistry);
+        Gauge.builder("webdriver.sessions", WebDriverSessions::inUse)
+                .description("Open WebDriver sessions")
+                .tag("state", "in_use")
+                .register(meterRegistry);
+    }
+
+    public void bindEngine(SuiteExecutionEngine engine) {
+        Gauge.builder("execution.queue.depth", engine, SuiteExecutionEngine::getQueueDepth)
+                .description("Suite runs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("execution.running", engine, SuiteExecutionEngine::getActiveCount)
+                .description("Suite runs currently executing")
+                .register(meterRegistry);
+    }
+
+    public void bindRegistry(ExecutionRegistry registry) {
+        Gauge.builder("execution.active", registry, ExecutionRegistry::countActive)
+                .description("Executions that are queued or running")
+                .register(meterRegistry);
+    }
+
+    public void bindWriteBehind(TestResultWriteBehind writeBehind) {
+        Gauge.builder("results.write_behind.pending", writeBehind, TestResultWriteBehind::getPendingCount)
+                .description("Test results buffered but not yet written")
+                .register(meterRegistry);
+    }
+
+    public void bindBudget(ConcurrencyBudget budget) {
+        Gauge.builder("execution.budget.in_use", budget, ConcurrencyBudget::getInUse)
+                .description("Weighted test slots held across all executions")
+                .register(meterRegistry);
+        Gauge.builder("execution.budget.capacity", budget, ConcurrencyBudget::getCapacity)
+                .description("Weighted test slots available to all executions")
+                .register(meterRegistry);
+        Gauge.builder("execution.budget.waiting", budget, ConcurrencyBudget::getWaiting)
+                .description("Tests waiting for budget slots")
+                .register(meterRegistry);
+    }
+
+    public void executionFinished(String suite, String status) {
+        meterRegistry.counter("execution.finished", "suite", suite, "status", status).increment();
+    }
+
+    public void recordTest(String suite, String className, String status, long durationMs) {
+        Timer.builder("test.duration")
+                .description("Duration of individual test methods")
+                .tags("suite", suite, "class", className, "status", status)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry)
+                .record(Math.max(durationMs, 0), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordPersist(int batchSize, long nanos) {
+        persistTimer.record(nanos, TimeUnit.NANOSECONDS);
+        persistBatchSize.record(batchSize);
+    }
+
+    public void recordReport(long nanos) {
+        reportTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.service;
+
+import com.example.model.ExecutionStatus;
+import com.example.model.RunPriority;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory state of one execution. Status and timestamps are volatile and the
+ * counters atomic, so test threads update them while status polls read them without locking.
+ */
+public class ExecutionRecord {
+    private final String executionId;
+    private final String suite;
+    private final String rerunOf;
+    private final long queuedAt = System.currentTimeMillis();
+    private volatile ExecutionStatus status = ExecutionStatus.QUEUED;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile int maxParallelTests;
+    private volatile RunPriority priority = RunPriority.INTERACTIVE;
+
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger passed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    // Progress plan for the ETA: tests and expected work (ms, from duration history) of the run
+    private volatile Map<String, Long> expectedMs = Map.of();
+    private volatile int plannedTests;
+    private volatile long plannedWorkMs;
+    private volatile int plannedParallelism = 1;
+    private final AtomicLong doneWorkMs = new AtomicLong();
+
+    public ExecutionRecord(String executionId, String suite) {
+        this(executionId, suite, null);
+    }
+
+    /** rerunOf: the original executionId when this run re-executes its failed/skipped tests. */
+    public ExecutionRecord(String executionId, String suite, String rerunOf) {
+        this.executionId = executionId;
+        this.suite = suite;
+        this.rerunOf = rerunOf;
+    }
+
+    public void markRunning() {
+        startedAt = System.currentTimeMillis();
+        status = ExecutionStatus.RUNNING;
+    }
+
+    public void markFinished(ExecutionStatus terminalStatus) {
+        finishedAt = System.currentTimeMillis();
+        status = terminalStatus;
+    }
+
+    public void testStarted() { started.incrementAndGet(); }
+    public void testPassed() { passed.incrementAndGet(); }
+    public void testFailed() { failed.incrementAndGet(); }
+    public void testSkipped() { skipped.incrementAndGet(); }
+
+    /**
+     * Sets what the run is expected to execute: the expected duration (ms) of each test method,
+     * keyed as DurationHistory.key(className, method).
+     * parallelism only matters for the ETA until the first test finishes.
+     */
+    public void plan(Map<String, Long> expectedMs, int parallelism) {
+        this.expectedMs = Map.copyOf(expectedMs);
+        plannedTests = expectedMs.size();
+        plannedWorkMs = expectedMs.values().stream().mapToLong(Long::longValue).sum();
+        plannedParallelism = Math.max(1, parallelism);
+    }
+
+    /** Counts a finished test's expected duration as done, so the ETA follows work rather than test count. */
+    public void workDone(String test) {
+        Long expected = expectedMs.get(test);
+        if (expected == null && plannedTests > 0) expected = plannedWorkMs / plannedTests;
+        if (expected != null) doneWorkMs.addAndGet(expected);
+    }
+
+    /** Tests started but not finished yet. */
+    public int getRunning() { return Math.max(0, started.get() - getTotal()); }
+
+    public int getPlannedTests() { return plannedTests; }
+
+    /**
+     * Estimated ms until the run finishes: elapsed time scaled by the expected work still to do,
+     * or the plan divided by its parallelism before any test finished; -1 without a plan.
+     */
+    public long getEtaMs() {
+        if (status.isTerminal()) return 0;
+        if (plannedTests == 0) return -1;
+        long done = doneWorkMs.get();
+        long remaining = Math.max(0, plannedWorkMs - done);
+        if (done == 0) return remaining / plannedParallelism;
+        return (long) (getElapsedMs() * ((double) remaining / done));
+    }
+
+    /** Milliseconds since the run started; frozen once it finishes, 0 while still queued. */
+    public long getElapsedMs() {
+        if (startedAt == 0) return 0;
+        return (finishedAt != 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+    }
+
+    /** Time the entry became terminal, or 0 while it is still queued/running. */
+    public long getFinishedAt() { return finishedAt; }
+    public long getQueuedAt() { return queuedAt; }
+    /** Time the run started, or 0 while still queued. */
+    public long getStartedAt() { return startedAt; }
+    public String getExecutionId() { return executionId; }
+    public String getSuite() { return suite; }
+    public String getRerunOf() { return rerunOf; }
+    /** User cap on concurrently running tests; 0 means the suite's own thread-count. */
+    public int getMaxParallelTests() { return maxParallelTests; }
+    public void setMaxParallelTests(int maxParallelTests) { this.maxParallelTests = maxParallelTests; }
+    /** Dispatch class; a queued scheduled run is promoted when an identical interactive request coalesces into it. */
+    public RunPriority getPriority() { return priority; }
+    public void setPriority(RunPriority priority) { this.priority = priority; }
+    public ExecutionStatus getStatus() { return status; }
+    public int getStarted() { return started.get(); }
+    /** Finished tests; skips reported without a start (e.g. config failures) count here too. */
+    public int getTotal() { return passed.get() + failed.get() + skipped.get(); }
+    public int getPassed() { return passed.get(); }
+    public int getFailed() { return failed.get(); }
+    public int getSkipped() { return skipped.get(); }
+
+    public Map<String, Object> toStatusMap() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("executionId", executionId);
+        m.put("suite", suite);
+        if (rerunOf != null) m.put("rerunOf", rerunOf);
+        m.put("status", status.name());
+        m.put("priority", priority.name());
+        m.put("total", getTotal());
+        m.put("passed", passed.get());
+        m.put("failed", failed.get());
+        m.put("skipped", skipped.get());
+        m.put("running", getRunning());
+        if (plannedTests > 0) {
+            m.put("planned", plannedTests);
+            m.put("etaMs", getEtaMs());
+        }
+        m.put("elapsedMs", getElapsedMs());
+        return m;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared registry of executions for the control API and the scheduler.
+ * Backed by a ConcurrentHashMap so status polls never block test threads.
+ * Finished entries are evicted after a TTL, and the oldest finished entries
+ * are dropped early if the registry grows past its size cap.
+ */
+@Component
+public class ExecutionRegistry {
+    private final ConcurrentMap<String, ExecutionRecord> executions = new ConcurrentHashMap<>();
+
+    @Value("${execution.registry.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${execution.registry.max-entries:10000}")
+    private int maxEntries;
+
+    @Autowired
+    private ExecutionMetrics executionMetrics;
+
+    @PostConstruct
+    public void bindMetrics() {
+        executionMetrics.bindRegistry(this);
+    }
+
+    public ExecutionRecord register(String executionId, String suite) {
+        return register(executionId, suite, null);
+    }
+
+    public ExecutionRecord register(String executionId, String suite, String rerunOf) {
+        ExecutionRecord record = new ExecutionRecord(executionId, suite, rerunOf);
+        executions.put(executionId, record);
+        if (executions.size() > maxEntries) {
+            evictOldestFinished(executions.size() - maxEntries);
+        }
+        return record;
+    }
+
+    /** Returns the record for executionId, or null if unknown or already evicted. */
+    public ExecutionRecord get(String executionId) {
+        return executions.get(executionId);
+    }
+
+    public void remove(String executionId) {
+        executions.remove(executionId);
+    }
+
+    public int size() {
+        return executions.size();
+    }
+
+    /** Executions that are queued or running. */
+    public long countActive() {
+        return executions.values().stream().filter(r -> !r.getStatus().isTerminal()).count();
+    }
+
+    @Scheduled(fixedDelayString = "${execution.registry.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMinutes * 60_000L;
+        executions.values().removeIf(r -> r.getStatus().isTerminal() && r.getFinishedAt() < cutoff);
+    }
+
+    private void evictOldestFinished(int count) {
+        executions.values().stream()
+                .filter(r -> r.getStatus().isTerminal())
+                .sorted(Comparator.comparingLong(ExecutionRecord::getFinishedAt))
+                .limit(count)
+                .forEach(r -> executions.remove(r.getExecutionId(), r));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.service;
+
+import com.example.scheduler.ConcurrencyBudget;
+import com.example.scheduler.TestLane;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The one ConcurrencyBudget of this process, sized from the budget.* properties.
+ * Every in-process run adds a listener from newListener() and sharded runs take slots for their
+ * workers, so concurrent executions stay within budget.slots however many of them run and
+ * whatever their suite thread-counts say.
+ */
+@Component
+public class GlobalConcurrencyBudget {
+    @Autowired
+    private ExecutionMetrics executionMetrics;
+
+    @Value("${budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${budget.slots:32}")
+    private int slots;
+
+    @Value("${budget.ui-weight:8}")
+    private int uiWeight;
+
+    @Value("${budget.api-weight:1}")
+    private int apiWeight;
+
+    private ConcurrencyBudget budget;
+
+    @PostConstruct
+    public void init() {
+        budget = new ConcurrencyBudget(slots, uiWeight, apiWeight);
+        executionMetrics.bindBudget(budget);
+        System.out.println("[DEBUG] Global concurrency budget: slots=" + slots + ", uiWeight=" + uiWeight + ", apiWeight=" + apiWeight
+                + (enabled ? "" : " (disabled)"));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ConcurrencyBudget.Listener newListener(String executionId) {
+        return budget.listener(executionId);
+    }
+
+    /** Slots held outside TestNG, e.g. by a shard worker JVM for its lifetime; see ConcurrencyBudget. */
+    public int acquire(String executionId, TestLane lane) throws InterruptedException {
+        return budget.acquire(executionId, lane);
+    }
+
+    public int tryAcquire(String executionId, TestLane lane) {
+        return budget.tryAcquire(executionId, lane);
+    }
+
+    public void release(String executionId, int weight) {
+        budget.release(executionId, weight);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. nextCursor is the id to pass as ?cursor=
+ * for the following page, or null when this is the last page.
+ */
+public record KeysetPage<T>(List<T> items, Long nextCursor) {
+
+    /** Builds a page from a query that fetched limit + 1 rows; the extra row only signals more data. */
+    static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(items, idOf.apply(items.get(limit - 1)));
+    }
+
+    static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, 1000));
+    }
+}
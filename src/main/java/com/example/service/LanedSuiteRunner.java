@@ -0,0 +1,239 @@
+package com.example.service;
+
+import com.example.report.ExecutionProgressListener;
+import com.example.report.SuiteReportGenerator;
+import com.example.scheduler.AdaptiveConcurrencyController;
+import com.example.scheduler.ConcurrencyBudget;
+import com.example.scheduler.LaneExecutorFactory;
+import com.example.scheduler.LongestFirstMethodInterceptor;
+import com.example.scheduler.TestLane;
+import com.example.util.VirtualThreads;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs parallel suites that mix API and UI classes as two concurrent TestNG runs, one per lane:
+ * API tests on a wide pool of virtual threads (platform threads before Java 21), UI tests on a
+ * small platform-thread pool sized to the browsers the WebDriver pool can hand out.
+ * Both lanes belong to the same execution and end up in one report.
+ */
+@Service
+public class LanedSuiteRunner {
+    @Autowired
+    private SuiteReportGenerator suiteReportGenerator;
+
+    @Autowired
+    private ExecutionMetrics executionMetrics;
+
+    @Autowired
+    private AdaptiveParallelism adaptiveParallelism;
+
+    @Autowired
+    private GlobalConcurrencyBudget globalConcurrencyBudget;
+
+    @Autowired
+    private ExecutionEventBus executionEventBus;
+
+    @Value("${lanes.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lanes.api.threads:64}")
+    private int apiThreads;
+
+    // 0 = webdriver.pool.size, the number of browsers UI tests can hold at once
+    @Value("${lanes.ui.threads:0}")
+    private int uiThreads;
+
+    /** True when lanes are enabled and some parallel suite contains both API and UI classes. */
+    public boolean applies(List<XmlSuite> xmlSuites, int maxParallelTests) {
+        if (!enabled || maxParallelTests == 1) return false;
+        for (XmlSuite xmlSuite : xmlSuites) {
+            if (split(xmlSuite).size() > 1) return true;
+        }
+        return false;
+    }
+
+    public void run(List<XmlSuite> xmlSuites, String executionId, ExecutionRecord record) {
+        Map<TestLane, Integer> threads = laneThreads(record != null ? record.getMaxParallelTests() : 0);
+        Map<TestLane, List<XmlSuite>> plans = new EnumMap<>(TestLane.class);
+        for (XmlSuite xmlSuite : xmlSuites) {
+            Map<TestLane, List<XmlTest>> lanes = split(xmlSuite);
+            if (lanes.size() < 2) {
+                // Sequential or single-type suites keep their own settings and run on platform threads,
+                // within the UI lane's share of the cap since the API lane runs alongside
+                XmlSuite copy = laneCopy(xmlSuite, null, xmlSuite.getTests(), 0);
+                if (record != null && record.getMaxParallelTests() > 0) capThreads(copy, threads.get(TestLane.UI));
+                plans.computeIfAbsent(TestLane.UI, k -> new ArrayList<>()).add(copy);
+                continue;
+            }
+            lanes.forEach((lane, tests) -> plans.computeIfAbsent(lane, k -> new ArrayList<>())
+                    .add(laneCopy(xmlSuite, lane, tests, threads.get(lane))));
+        }
+
+        List<ISuite> finished = Collections.synchronizedList(new ArrayList<>());
+        AtomicReference<RuntimeException> uiFailure = new AtomicReference<>();
+        Thread uiLane = null;
+        if (plans.containsKey(TestLane.UI)) {
+            List<XmlSuite> uiPlan = plans.get(TestLane.UI);
+            uiLane = new Thread(() -> {
+                try {
+                    runLane(TestLane.UI, uiPlan, executionId, record, finished);
+                } catch (RuntimeException e) {
+                    uiFailure.set(e);
+                }
+            }, "lane-ui-" + executionId);
+            uiLane.start();
+        }
+        try {
+            if (plans.containsKey(TestLane.API)) {
+                runLane(TestLane.API, plans.get(TestLane.API), executionId, record, finished);
+            }
+        } finally {
+            joinQuietly(uiLane);
+        }
+        if (uiFailure.get() != null) throw uiFailure.get();
+        suiteReportGenerator.generateReport(xmlSuites, new ArrayList<>(finished), null);
+    }
+
+    private void runLane(TestLane lane, List<XmlSuite> plan, String executionId, ExecutionRecord record, List<ISuite> finished) {
+        int threads = plan.stream().flatMap(s -> s.getTests().stream()).mapToInt(XmlTest::getThreadCount).max().orElse(1);
+        TestNG testng = new TestNG();
+        testng.setXmlSuites(plan);
+        // Separate default-reporter output so concurrent runs and lanes don't overwrite each other
+        testng.setOutputDirectory("test-output/" + executionId + "/" + lane.name().toLowerCase() + "-lane");
+        testng.addListener(new LongestFirstMethodInterceptor());
+        testng.addListener(new ExecutionProgressListener(record, executionMetrics, executionEventBus));
+        testng.addListener(new IReporter() {
+            @Override
+            public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+                for (ISuite suite : suites) {
+                    labelSummary(suite, lane, threads);
+                    finished.add(suite);
+                }
+            }
+        });
+        if (lane == TestLane.API) {
+            testng.setExecutorFactory(new LaneExecutorFactory(VirtualThreads.factory("lane-api-")));
+        }
+        AdaptiveConcurrencyController adaptive = null;
+        // Browser-bound work is what overloads the host; the API lane is left at its full width
+        if (lane == TestLane.UI && adaptiveParallelism.isEnabled() && threads > 1) {
+            adaptive = adaptiveParallelism.newController(threads);
+            testng.addListener(adaptive);
+        }
+        ConcurrencyBudget.Listener budget = null;
+        if (globalConcurrencyBudget.isEnabled()) {
+            budget = globalConcurrencyBudget.newListener(executionId);
+            testng.addListener(budget);
+        }
+        System.out.println("[DEBUG] Starting " + lane + " lane: suites=" + plan.size() + ", threads=" + threads
+                + (lane == TestLane.API ? ", virtualThreads=" + VirtualThreads.available() : ""));
+        try {
+            testng.run();
+        } finally {
+            if (adaptive != null) adaptive.close();
+            if (budget != null) budget.close();
+        }
+        System.out.println("[DEBUG] " + lane + " lane completed");
+    }
+
+    /** Tests of a parallel suite grouped by lane; empty for sequential suites or tests declared by package. */
+    private Map<TestLane, List<XmlTest>> split(XmlSuite xmlSuite) {
+        Map<TestLane, List<XmlTest>> lanes = new EnumMap<>(TestLane.class);
+        for (XmlTest test : xmlSuite.getTests()) {
+            if (test.getParallel() == null || !test.getParallel().isParallel() || !test.getXmlPackages().isEmpty()) {
+                return Map.of();
+            }
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                TestLane lane = TestLane.of(test, xmlClass.getName());
+                List<XmlTest> tests = lanes.computeIfAbsent(lane, k -> new ArrayList<>());
+                if (!tests.contains(test)) tests.add(test);
+            }
+        }
+        return lanes;
+    }
+
+    /**
+     * Threads of each lane. The lanes run at the same time, so a maxParallelTests cap is split
+     * between them (the UI lane gets at most half) rather than applied to each.
+     */
+    private Map<TestLane, Integer> laneThreads(int maxParallelTests) {
+        int ui = Math.max(1, uiThreads > 0 ? uiThreads : Integer.getInteger("webdriver.pool.size", 4));
+        int api = Math.max(1, apiThreads);
+        if (maxParallelTests > 0) {
+            ui = Math.min(ui, Math.max(1, maxParallelTests / 2));
+            api = Math.min(api, Math.max(1, maxParallelTests - ui));
+        }
+        Map<TestLane, Integer> threads = new EnumMap<>(TestLane.class);
+        threads.put(TestLane.UI, ui);
+        threads.put(TestLane.API, api);
+        return threads;
+    }
+
+    private static void capThreads(XmlSuite suite, int max) {
+        suite.setThreadCount(Math.min(suite.getThreadCount(), max));
+        for (XmlTest test : suite.getTests()) {
+            test.setThreadCount(Math.min(test.getThreadCount(), max));
+        }
+    }
+
+    /**
+     * Copy of the suite holding only the given tests, restricted to the classes of lane (null = all).
+     * threads 0 keeps the original thread counts. The suite name is kept so results group as before.
+     */
+    private XmlSuite laneCopy(XmlSuite source, TestLane lane, List<XmlTest> tests, int threads) {
+        XmlSuite copy = source.shallowCopy();
+        List<String> listeners = new ArrayList<>(source.getListeners());
+        // The merged report is written once both lanes are done
+        listeners.remove(SuiteReportGenerator.class.getName());
+        copy.setListeners(listeners);
+        copy.setParameters(new LinkedHashMap<>(source.getParameters()));
+        copy.setPreserveOrder(source.getPreserveOrder());
+        copy.setIncludedGroups(source.getIncludedGroups());
+        copy.setExcludedGroups(source.getExcludedGroups());
+        if (threads > 0) copy.setThreadCount(threads);
+        for (XmlTest test : tests) {
+            XmlTest laneTest = SuitePlanCache.copyTest(test, copy, className -> lane == null || TestLane.of(test, className) == lane);
+            if (threads > 0) laneTest.setThreadCount(threads);
+        }
+        return copy;
+    }
+
+    // Both lanes record the same summary keys (LPT, adaptive slots); prefix them with the lane
+    private static void labelSummary(ISuite suite, TestLane lane, int threads) {
+        String label = lane == TestLane.API ? "API lane" : "UI lane";
+        for (String name : new ArrayList<>(suite.getAttributeNames())) {
+            if (name.startsWith(SuiteReportGenerator.SUMMARY_ATTRIBUTE_PREFIX)) {
+                Object value = suite.removeAttribute(name);
+                suite.setAttribute(SuiteReportGenerator.SUMMARY_ATTRIBUTE_PREFIX + label + ": "
+                        + name.substring(SuiteReportGenerator.SUMMARY_ATTRIBUTE_PREFIX.length()), value);
+            }
+        }
+        String executor = lane == TestLane.UI ? "platform" : VirtualThreads.available() ? "virtual" : "platform";
+        suite.setAttribute(SuiteReportGenerator.SUMMARY_ATTRIBUTE_PREFIX + label + " threads", threads + " (" + executor + ")");
+    }
+
+    private static void joinQuietly(Thread thread) {
+        if (thread == null) return;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
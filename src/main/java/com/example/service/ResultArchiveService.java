@@ -0,0 +1,54 @@
+package com.example.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Moves test_result rows older than the retention window into test_result_archive,
+ * in id-ordered batches with one short transaction each, so the hot table and its
+ * indexes stay proportional to recent history.
+ */
+@Service
+public class ResultArchiveService {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${results.archive.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${results.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${results.archive.cron:0 30 3 * * *}")
+    public void archiveOldResults() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        long moved = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (batch == null || batch == 0) break;
+            moved += batch;
+        }
+        if (moved > 0) {
+            System.out.println("[DEBUG] Archived " + moved + " test results older than " + cutoff);
+        }
+    }
+
+    private int archiveBatch(Timestamp cutoff) {
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM (SELECT id FROM test_result WHERE start_time < ? ORDER BY id LIMIT ?) t",
+                Long.class, cutoff, batchSize);
+        if (maxId == null) return 0;
+        jdbcTemplate.update("INSERT IGNORE INTO test_result_archive SELECT * FROM test_result WHERE start_time < ? AND id <= ?",
+                cutoff, maxId);
+        return jdbcTemplate.update("DELETE FROM test_result WHERE start_time < ? AND id <= ?", cutoff, maxId);
+    }
+}
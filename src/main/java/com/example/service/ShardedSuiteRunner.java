@@ -0,0 +1,227 @@
+package com.example.service;
+
+import com.example.report.ReportRecord;
+import com.example.report.SuiteReportGenerator;
+import com.example.scheduler.DurationHistory;
+import com.example.scheduler.TestLane;
+import com.example.shard.Shard;
+import com.example.shard.ShardCoordinator;
+import com.example.shard.ShardWorker;
+import com.example.util.TestMethodResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinator mode for SuiteExecutionService: splits the parsed suites into method-level
+ * shards (whole classes when methods depend on each other), serves them to ShardWorker JVMs
+ * and merges their results into one execution and one report.
+ * Workers are spawned locally (shard.workers) and/or started by hand against a fixed
+ * shard.coordinator.port, so scaling can be tried with several JVMs on one box.
+ * A worker runs one test at a time, so the spawned workers are the run's parallelism: at most
+ * maxParallelTests of them, each holding a UI-weight slot of the global budget while it lives
+ * (the first waits for its slot, further ones are only spawned while slots are free).
+ * Adaptive concurrency does not apply to sharded runs.
+ */
+@Service
+public class ShardedSuiteRunner {
+    // Forwarded to spawned workers so they target the same stand-in servers, pools and artifact settings
+    private static final String[] FORWARDED_PROPERTY_PREFIXES = {"target.", "replay.", "webdriver.", "http.pool.", "artifacts."};
+
+    @Autowired
+    private SuiteReportGenerator suiteReportGenerator;
+
+    @Autowired
+    private ExecutionMetrics executionMetrics;
+
+    @Autowired
+    private ExecutionEventBus executionEventBus;
+
+    @Autowired
+    private GlobalConcurrencyBudget globalConcurrencyBudget;
+
+    @Value("${shard.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shard.workers:2}")
+    private int workers;
+
+    @Value("${shard.coordinator.port:0}")
+    private int port;
+
+    @Value("${shard.max-attempts:2}")
+    private int maxAttempts;
+
+    @Value("${shard.worker-wait-seconds:60}")
+    private long workerWaitSeconds;
+
+    @Value("${shard.worker.jvm-args:}")
+    private String workerJvmArgs;
+
+    @Value("${shard.worker.classpath:}")
+    private String workerClasspath;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void run(List<XmlSuite> xmlSuites, String executionId, ExecutionRecord record) {
+        List<Shard> shards = buildShards(xmlSuites, executionId);
+        System.out.println("[DEBUG] Sharded run " + executionId + ": " + shards.size() + " shards");
+        List<Process> processes = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int maxParallelTests = record != null ? record.getMaxParallelTests() : 0;
+        int workerCount = maxParallelTests > 0 ? Math.min(workers, maxParallelTests) : workers;
+        try (ShardCoordinator coordinator = new ShardCoordinator(shards, maxAttempts, batch -> track(batch, record))) {
+            int boundPort = coordinator.start(port);
+            System.out.println("[DEBUG] Shard coordinator listening on 127.0.0.1:" + boundPort);
+            for (int i = 1; i <= workerCount; i++) {
+                if (globalConcurrencyBudget.isEnabled()) {
+                    // A worker may hold a browser, so it is charged as a UI test
+                    int weight = i == 1 ? globalConcurrencyBudget.acquire(executionId, TestLane.UI)
+                            : globalConcurrencyBudget.tryAcquire(executionId, TestLane.UI);
+                    if (weight == 0) {
+                        System.out.println("[DEBUG] Concurrency budget admits " + (i - 1) + " of " + workerCount + " shard workers");
+                        break;
+                    }
+                    slots.add(weight);
+                }
+                processes.add(spawnWorker(executionId, boundPort, i));
+            }
+            coordinator.awaitCompletion(TimeUnit.SECONDS.toMillis(workerWaitSeconds),
+                    () -> processes.isEmpty() || processes.stream().anyMatch(Process::isAlive));
+
+            List<ReportRecord> results = coordinator.getResults();
+            results.sort((a, b) -> Long.compare(a.startMillis(), b.startMillis()));
+            Map<String, String> summary = new LinkedHashMap<>();
+            summary.put("Shards", String.valueOf(coordinator.getShardCount()));
+            summary.put("Shard workers", String.valueOf(coordinator.getWorkersSeen()));
+            summary.put("Shard retries", String.valueOf(coordinator.getRetries()));
+            suiteReportGenerator.writeReport(executionId, results, summary);
+        } catch (IOException e) {
+            throw new IllegalStateException("Sharded run " + executionId + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sharded run " + executionId + " interrupted", e);
+        } finally {
+            stopWorkers(processes);
+            for (int weight : slots) globalConcurrencyBudget.release(executionId, weight);
+        }
+    }
+
+    /** One shard per test method, or per class when its methods depend on each other. */
+    List<Shard> buildShards(List<XmlSuite> xmlSuites, String executionId) {
+        List<Shard> shards = new ArrayList<>();
+        for (XmlSuite suite : xmlSuites) {
+            List<String> listeners = new ArrayList<>(suite.getListeners());
+            // The coordinator writes the merged report; workers must not write their own
+            listeners.remove(SuiteReportGenerator.class.getName());
+            for (XmlTest test : suite.getTests()) {
+                Map<String, String> parameters = new LinkedHashMap<>(test.getAllParameters());
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    List<String> methods = TestMethodResolver.testMethods(xmlClass);
+                    if (methods.isEmpty()) continue;
+                    if (TestMethodResolver.hasDependencies(xmlClass.getName())) {
+                        shards.add(new Shard(shards.size(), executionId, suite.getName(), test.getName(),
+                                xmlClass.getName(), methods, parameters, listeners));
+                        continue;
+                    }
+                    for (String method : methods) {
+                        shards.add(new Shard(shards.size(), executionId, suite.getName(), test.getName(),
+                                xmlClass.getName(), List.of(method), parameters, listeners));
+                    }
+                }
+            }
+        }
+        // Longest first, so the slowest tests start while every worker is still busy
+        Set<String> tests = new LinkedHashSet<>();
+        for (Shard shard : shards) {
+            for (String method : shard.methods()) tests.add(DurationHistory.key(shard.className(), method));
+        }
+        Map<String, Long> estimates = DurationHistory.estimate(tests);
+        shards.sort(Comparator.comparingLong((Shard s) -> s.methods().stream()
+                .mapToLong(method -> estimates.get(DurationHistory.key(s.className(), method))).sum()).reversed());
+        return shards;
+    }
+
+    // Workers exit on their own once told DONE; only stragglers are killed
+    private void stopWorkers(List<Process> processes) {
+        for (Process p : processes) {
+            try {
+                if (!p.waitFor(10, TimeUnit.SECONDS)) p.destroy();
+            } catch (InterruptedException e) {
+                p.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void track(List<ReportRecord> batch, ExecutionRecord record) {
+        for (ReportRecord r : batch) {
+            if (record != null) {
+                record.testStarted();
+                switch (r.status()) {
+                    case "PASSED" -> record.testPassed();
+                    case "FAILED" -> record.testFailed();
+                    default -> record.testSkipped();
+                }
+                record.workDone(DurationHistory.key(r.className(), r.testCaseId()));
+                Map<String, Object> data = record.toStatusMap();
+                data.put("test", r.testCaseId());
+                data.put("className", r.className());
+                data.put("testStatus", r.status());
+                data.put("durationMs", r.durationMs());
+                executionEventBus.publish(record.getExecutionId(), "test-finished", data);
+            }
+            executionMetrics.recordTest(r.suite(), r.className(), r.status(), r.durationMs());
+        }
+    }
+
+    private Process spawnWorker(String executionId, int boundPort, int index) throws IOException {
+        String workerId = executionId + "-w" + index;
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (!workerJvmArgs.isBlank()) {
+            command.addAll(List.of(workerJvmArgs.trim().split("\\s+")));
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            for (String prefix : FORWARDED_PROPERTY_PREFIXES) {
+                if (name.startsWith(prefix)) {
+                    command.add("-D" + name + "=" + System.getProperty(name));
+                    break;
+                }
+            }
+        }
+        command.add("-cp");
+        command.add(workerClasspath.isBlank() ? System.getProperty("java.class.path") : workerClasspath);
+        command.add(ShardWorker.class.getName());
+        command.add("127.0.0.1");
+        command.add(String.valueOf(boundPort));
+        command.add(workerId);
+
+        Path logDir = Paths.get("reports", executionId, "workers");
+        Files.createDirectories(logDir);
+        File log = logDir.resolve(workerId + ".log").toFile();
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+}
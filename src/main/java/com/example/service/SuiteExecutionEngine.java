@@ -0,0 +1,287 @@
+package com.example.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.model.ExecutionStatus;
+import com.example.model.RunPriority;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs suites off the servlet thread.
+ * A fixed set of workers drains a bounded submission queue; when the queue is full
+ * new submissions are rejected so callers can answer 429 instead of piling up work.
+ * Each run moves through QUEUED -> RUNNING -> COMPLETED/FAILED.
+ * Interactive runs are dispatched before scheduled ones, and scheduled runs never occupy
+ * the workers reserved for interactive use. A request identical to a run that is still
+ * queued (same suite, rerun target and cap) joins that run instead of queueing another.
+ */
+@Service
+public class SuiteExecutionEngine {
+    /** A run waiting for a worker. */
+    private record QueuedRun(String suite, String rerunOf, ExecutionRecord record) {
+        boolean sameRequest(String otherSuite, String otherRerunOf, int maxParallelTests) {
+            return otherSuite != null && otherSuite.equalsIgnoreCase(suite) && Objects.equals(rerunOf, otherRerunOf)
+                    && record.getMaxParallelTests() == maxParallelTests;
+        }
+    }
+
+    @Autowired
+    private SuiteExecutionService suiteExecutionService;
+
+    @Autowired
+    private ExecutionRegistry executionRegistry;
+
+    @Autowired
+    private TestExecutionService testExecutionService;
+
+    @Autowired
+    private ExecutionMetrics executionMetrics;
+
+    @Autowired
+    private ExecutionEventBus executionEventBus;
+
+    @Value("${execution.engine.workers:4}")
+    private int workers;
+
+    @Value("${execution.engine.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${execution.engine.interactive-reserved-workers:1}")
+    private int interactiveReservedWorkers;
+
+    private final AtomicLong lastExecutionId = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Deque<QueuedRun> interactive = new ArrayDeque<>();
+    private final Deque<QueuedRun> scheduled = new ArrayDeque<>();
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private int running;
+    private int scheduledRunning;
+    private volatile boolean accepting;
+
+    @PostConstruct
+    public void start() {
+        accepting = true;
+        for (int i = 1; i <= workers; i++) {
+            Thread worker = new Thread(this::workerLoop, "suite-worker-" + i);
+            workerThreads.add(worker);
+            worker.start();
+        }
+        executionMetrics.bindEngine(this);
+        System.out.println("[DEBUG] SuiteExecutionEngine started: workers=" + workers + ", queueCapacity=" + queueCapacity
+                + ", scheduledWorkers=" + scheduledWorkerLimit());
+    }
+
+    /**
+     * Queue a suite run and return its executionId immediately.
+     * @throws RejectedExecutionException when the queue is full or the engine is shutting down
+     * @throws IllegalArgumentException when suite is null or blank
+     */
+    public String submit(String suite) {
+        return submit(suite, null, 0, RunPriority.INTERACTIVE);
+    }
+
+    /** As submit(suite), capping concurrently running tests at maxParallelTests (0 = suite thread-count). */
+    public String submit(String suite, int maxParallelTests) {
+        return submit(suite, null, maxParallelTests, RunPriority.INTERACTIVE);
+    }
+
+    /** As submit(suite, maxParallelTests) with an explicit dispatch class, e.g. SCHEDULED for cron runs. */
+    public String submit(String suite, int maxParallelTests, RunPriority priority) {
+        return submit(suite, null, maxParallelTests, priority);
+    }
+
+    /**
+     * Queue a rerun of the failed/skipped tests of a finished execution.
+     * @throws RejectedExecutionException when the queue is full or the engine is shutting down
+     */
+    public String submitRerun(String suite, String originalExecutionId) {
+        return submit(suite, originalExecutionId, 0, RunPriority.INTERACTIVE);
+    }
+
+    private String submit(String suite, String rerunOf, int maxParallelTests, RunPriority priority) {
+        if (suite == null || suite.isBlank()) {
+            throw new IllegalArgumentException("Suite name is required");
+        }
+        ExecutionRecord record;
+        lock.lock();
+        try {
+            if (!accepting) {
+                throw new RejectedExecutionException("Execution engine is shutting down");
+            }
+            QueuedRun queued = findQueued(suite, rerunOf, maxParallelTests);
+            if (queued != null) {
+                if (priority == RunPriority.INTERACTIVE && queued.record().getPriority() == RunPriority.SCHEDULED) {
+                    scheduled.remove(queued);
+                    interactive.addLast(queued);
+                    queued.record().setPriority(RunPriority.INTERACTIVE);
+                    changed.signalAll();
+                }
+                System.out.println("[DEBUG] Coalesced " + priority + " request for " + suite + " into queued execution " + queued.record().getExecutionId());
+                return queued.record().getExecutionId();
+            }
+            if (interactive.size() + scheduled.size() >= queueCapacity) {
+                throw new RejectedExecutionException("Execution queue is full");
+            }
+            record = executionRegistry.register(nextExecutionId(), suite, rerunOf);
+            record.setMaxParallelTests(maxParallelTests);
+            record.setPriority(priority);
+            (priority == RunPriority.INTERACTIVE ? interactive : scheduled).addLast(new QueuedRun(suite, rerunOf, record));
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        testExecutionService.save(record);
+        return record.getExecutionId();
+    }
+
+    private QueuedRun findQueued(String suite, String rerunOf, int maxParallelTests) {
+        for (Deque<QueuedRun> queue : List.of(interactive, scheduled)) {
+            for (QueuedRun run : queue) {
+                if (run.sameRequest(suite, rerunOf, maxParallelTests)) return run;
+            }
+        }
+        return null;
+    }
+
+    private void workerLoop() {
+        while (true) {
+            QueuedRun run;
+            boolean scheduledRun;
+            lock.lock();
+            try {
+                while ((run = pollNext()) == null) {
+                    if (!accepting && interactive.isEmpty() && scheduled.isEmpty()) return;
+                    changed.await();
+                }
+                scheduledRun = run.record().getPriority() == RunPriority.SCHEDULED;
+                running++;
+                if (scheduledRun) scheduledRunning++;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                execute(run.suite(), run.record());
+            } finally {
+                lock.lock();
+                try {
+                    running--;
+                    if (scheduledRun) scheduledRunning--;
+                    changed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    // Interactive first; scheduled only while they hold fewer than their share of the workers
+    private QueuedRun pollNext() {
+        if (!interactive.isEmpty()) return interactive.pollFirst();
+        if (!scheduled.isEmpty() && scheduledRunning < scheduledWorkerLimit()) return scheduled.pollFirst();
+        return null;
+    }
+
+    // With a single worker nothing can be reserved; scheduled runs then only yield queue position
+    private int scheduledWorkerLimit() {
+        return Math.max(1, workers - interactiveReservedWorkers);
+    }
+
+    private void execute(String suite, ExecutionRecord record) {
+        record.markRunning();
+        testExecutionService.save(record);
+        executionEventBus.publish(record.getExecutionId(), "status", record.toStatusMap());
+        try {
+            if (record.getRerunOf() != null) {
+                suiteExecutionService.rerunFailed(suite, record.getExecutionId(), record.getRerunOf());
+            } else {
+                suiteExecutionService.runSuite(suite, record.getExecutionId());
+            }
+            record.markFinished(ExecutionStatus.COMPLETED);
+        } catch (Exception e) {
+            System.out.println("[ERROR] Execution " + record.getExecutionId() + " failed: " + e.getMessage());
+            record.markFinished(ExecutionStatus.FAILED);
+        }
+        testExecutionService.save(record);
+        executionEventBus.complete(record);
+        executionMetrics.executionFinished(suite, record.getStatus().name());
+    }
+
+    /** False once shutdown has begun; used to tell 503 apart from a full queue (429). */
+    public boolean isAcceptingWork() {
+        return accepting;
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return interactive.size() + scheduled.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Runs of one dispatch class waiting for a worker. */
+    public int getQueueDepth(RunPriority priority) {
+        lock.lock();
+        try {
+            return (priority == RunPriority.INTERACTIVE ? interactive : scheduled).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Millisecond-based like before, but strictly increasing so concurrent submits never collide
+    private String nextExecutionId() {
+        long now = System.currentTimeMillis();
+        return String.valueOf(lastExecutionId.updateAndGet(prev -> Math.max(prev + 1, now)));
+    }
+
+    /** Stops accepting work, lets queued runs drain for up to 30 seconds, then interrupts the workers. */
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            accepting = false;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        try {
+            for (Thread worker : workerThreads) {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Thread worker : workerThreads) {
+            if (worker.isAlive()) worker.interrupt();
+        }
+    }
+}
@@ -2,37 +2,223 @@ package com.example.service;
 
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.testng.TestNG;
+import com.example.report.ExecutionProgressListener;
 import com.example.report.SuiteReportGenerator;
-import java.util.Collections;
+import com.example.scheduler.AdaptiveConcurrencyController;
+import com.example.scheduler.ConcurrencyBudget;
+import com.example.scheduler.DurationHistory;
+import com.example.scheduler.LongestFirstMethodInterceptor;
+import com.example.model.TestResult;
+import com.example.report.ReportRecord;
+import com.example.util.ExecutionContext;
+import com.example.util.TestMethodResolver;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class SuiteExecutionService {
     @Autowired
     private SuiteReportGenerator suiteReportGenerator;
+    @Autowired
+    private ExecutionRegistry executionRegistry;
+    @Autowired
+    private ExecutionMetrics executionMetrics;
+    @Autowired
+    private ShardedSuiteRunner shardedSuiteRunner;
+    @Autowired
+    private TestResultService testResultService;
+    @Value("${lpt.history-days:30}")
+    private int lptHistoryDays;
+    @Value("${lpt.default-duration-ms:5000}")
+    private long lptDefaultDurationMs;
+    @Autowired
+    private TestResultWriteBehind testResultWriteBehind;
+    @Autowired
+    private AdaptiveParallelism adaptiveParallelism;
+    @Autowired
+    private LanedSuiteRunner lanedSuiteRunner;
+    @Autowired
+    private SuitePlanCache suitePlanCache;
+    @Autowired
+    private GlobalConcurrencyBudget globalConcurrencyBudget;
+    @Autowired
+    private ExecutionEventBus executionEventBus;
+    @Autowired
+    private TestStatisticsService testStatisticsService;
     public void runSuite(String suite, String executionId) {
     System.out.println("[DEBUG] Starting suite: " + suite + ", executionId: " + executionId);
-    String suiteXml = switch (suite.toLowerCase()) {
-            case "blazedemo" -> "src/test/resources/blaze_smoke.xml";
-            case "reqres" -> "src/test/resources/reqres_smoke.xml";
-            default -> "src/test/resources/testng.xml";
-        };
-        System.setProperty("executionId", executionId);
-        java.util.List<org.testng.xml.XmlSuite> xmlSuites;
-        try {
-            java.util.Collection<org.testng.xml.XmlSuite> parsedSuites = new org.testng.xml.Parser(suiteXml).parse();
-            xmlSuites = new java.util.ArrayList<>(parsedSuites);
-        } catch (Exception e) {
-            System.out.println("[ERROR] Failed to parse suite XML: " + e.getMessage());
+        run(suitePlanCache.getPlan(suite), executionId);
+    }
+
+    /**
+     * Runs only the tests that are still failed/skipped in the merged view of originalExecutionId
+     * (the original run plus earlier reruns), then rewrites the original's merged report.
+     */
+    public void rerunFailed(String suite, String executionId, String originalExecutionId) {
+        System.out.println("[DEBUG] Rerunning failed tests of " + originalExecutionId + " as executionId: " + executionId);
+        // Results of the original run may still sit in the write-behind buffer
+        testResultWriteBehind.flush();
+        Set<String> failing = testResultService.getFailingMethods(originalExecutionId);
+        List<XmlSuite> xmlSuites = restrictToMethods(suitePlanCache.getPlan(suite), failing);
+        if (xmlSuites.isEmpty()) {
+            throw new IllegalStateException("None of the " + failing.size() + " failed tests of " + originalExecutionId + " are in suite " + suite);
+        }
+        run(xmlSuites, executionId);
+        testResultWriteBehind.flush();
+        List<TestResult> merged = testResultService.getMergedResults(originalExecutionId);
+        List<ReportRecord> records = new ArrayList<>(merged.size());
+        for (TestResult r : merged) {
+            records.add(ReportRecord.from(r));
+        }
+        Map<String, String> summary = new LinkedHashMap<>();
+        summary.put("Original execution", originalExecutionId);
+        summary.put("Latest rerun", executionId);
+        summary.put("Tests rerun", String.valueOf(failing.size()));
+        suiteReportGenerator.writeReportFiles(Paths.get("reports", originalExecutionId, "merged"), records, summary);
+    }
+
+    /**
+     * Keeps only the given "className#method" methods (bare names match in any class); classes with
+     * method dependencies are kept whole so TestNG can resolve them.
+     */
+    private List<XmlSuite> restrictToMethods(List<XmlSuite> xmlSuites, Set<String> methods) {
+        List<XmlSuite> kept = new ArrayList<>();
+        for (XmlSuite xmlSuite : xmlSuites) {
+            Iterator<XmlTest> tests = xmlSuite.getTests().iterator();
+            while (tests.hasNext()) {
+                XmlTest test = tests.next();
+                Iterator<XmlClass> classes = test.getXmlClasses().iterator();
+                while (classes.hasNext()) {
+                    XmlClass xmlClass = classes.next();
+                    List<XmlInclude> includes = new ArrayList<>();
+                    for (String method : TestMethodResolver.testMethods(xmlClass)) {
+                        if (methods.contains(xmlClass.getName() + "#" + method) || methods.contains(method)) {
+                            includes.add(new XmlInclude(method));
+                        }
+                    }
+                    if (includes.isEmpty()) {
+                        classes.remove();
+                    } else if (!TestMethodResolver.hasDependencies(xmlClass.getName())) {
+                        xmlClass.setIncludedMethods(includes);
+                    }
+                }
+                if (test.getXmlClasses().isEmpty()) tests.remove();
+            }
+            if (!xmlSuite.getTests().isEmpty()) kept.add(xmlSuite);
+        }
+        return kept;
+    }
+
+    private void run(List<XmlSuite> xmlSuites, String executionId) {
+        ExecutionContext.apply(xmlSuites, executionId);
+        loadDurationHistory();
+        ExecutionRecord record = executionRegistry.get(executionId);
+        planProgress(record, xmlSuites);
+        if (shardedSuiteRunner.isEnabled()) {
+            shardedSuiteRunner.run(xmlSuites, executionId, record);
+            System.out.println("[DEBUG] Sharded run completed for executionId: " + executionId);
             return;
         }
+        if (lanedSuiteRunner.applies(xmlSuites, record != null ? record.getMaxParallelTests() : 0)) {
+            lanedSuiteRunner.run(xmlSuites, executionId, record);
+            System.out.println("[DEBUG] Laned run completed for executionId: " + executionId);
+            return;
+        }
+        int cap = applyParallelCap(xmlSuites, record != null ? record.getMaxParallelTests() : 0);
         TestNG testng = new TestNG();
         testng.setXmlSuites(xmlSuites);
+        // TestNG's own reports go per execution, concurrent runs would overwrite each other's
+        testng.setOutputDirectory("test-output/" + executionId);
         testng.addListener(suiteReportGenerator);
+        testng.addListener(new LongestFirstMethodInterceptor());
+        testng.addListener(new ExecutionProgressListener(record, executionMetrics, executionEventBus));
+        AdaptiveConcurrencyController adaptive = null;
+        if (adaptiveParallelism.isEnabled() && cap > 1) {
+            adaptive = adaptiveParallelism.newController(cap);
+            testng.addListener(adaptive);
+        }
+        ConcurrencyBudget.Listener budget = null;
+        if (globalConcurrencyBudget.isEnabled()) {
+            budget = globalConcurrencyBudget.newListener(executionId);
+            testng.addListener(budget);
+        }
         if (!xmlSuites.isEmpty()) {
             System.out.println("[DEBUG] Loaded suite: " + xmlSuites.get(0).getName() + ", tests: " + xmlSuites.get(0).getTests().size());
         }
-        testng.run();
+        try {
+            testng.run();
+        } finally {
+            if (adaptive != null) adaptive.close();
+            if (budget != null) budget.close();
+        }
         System.out.println("[DEBUG] TestNG run completed for executionId: " + executionId);
     }
+
+    /**
+     * Lowers thread-count of parallel suites/tests to maxParallelTests (when > 0) and returns the
+     * largest resulting thread-count, i.e. the cap for the adaptive controller; 1 for sequential runs.
+     */
+    private int applyParallelCap(List<XmlSuite> xmlSuites, int maxParallelTests) {
+        int cap = 1;
+        for (XmlSuite xmlSuite : xmlSuites) {
+            if (maxParallelTests > 0) {
+                xmlSuite.setThreadCount(Math.min(xmlSuite.getThreadCount(), maxParallelTests));
+            }
+            for (XmlTest test : xmlSuite.getTests()) {
+                if (test.getParallel() == null || !test.getParallel().isParallel()) continue;
+                if (maxParallelTests > 0) {
+                    test.setThreadCount(Math.min(test.getThreadCount(), maxParallelTests));
+                }
+                cap = Math.max(cap, test.getThreadCount());
+            }
+        }
+        return cap;
+    }
+
+    /**
+     * Gives the record the expected duration of every test of the run for its ETA, with the
+     * widest parallel thread-count (within maxParallelTests) as the initial rate.
+     */
+    private void planProgress(ExecutionRecord record, List<XmlSuite> xmlSuites) {
+        if (record == null) return;
+        Set<String> tests = new LinkedHashSet<>();
+        int parallelism = 1;
+        for (XmlSuite xmlSuite : xmlSuites) {
+            for (TestMethodResolver.TestMethod method : TestMethodResolver.resolve(xmlSuite)) {
+                tests.add(DurationHistory.key(method.className(), method.methodName()));
+            }
+            for (XmlTest test : xmlSuite.getTests()) {
+                if (test.getParallel() != null && test.getParallel().isParallel()) {
+                    parallelism = Math.max(parallelism, test.getThreadCount());
+                }
+            }
+        }
+        if (record.getMaxParallelTests() > 0) parallelism = Math.min(parallelism, record.getMaxParallelTests());
+        record.plan(DurationHistory.estimate(tests), parallelism);
+    }
+
+    // Longest-first ordering uses median durations from test_statistics (one row per test); the
+    // windowed average over test_result is only scanned while the statistics are still empty
+    private void loadDurationHistory() {
+        try {
+            Map<String, Long> durations = testStatisticsService.getExpectedDurations();
+            if (durations.isEmpty()) durations = testResultService.getRecentDurations(lptHistoryDays);
+            DurationHistory.update(durations, lptDefaultDurationMs);
+            System.out.println("[DEBUG] Loaded duration history for " + durations.size() + " tests");
+        } catch (Exception e) {
+            System.out.println("[ERROR] Failed to load duration history: " + e.getMessage());
+        }
+    }
 }
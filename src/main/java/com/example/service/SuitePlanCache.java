@@ -0,0 +1,295 @@
+package com.example.service;
+
+import com.example.util.TestMethodResolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.testng.xml.Parser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlPackage;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Suite names and their parsed plans.
+ * Names come from suites.registry, from every suite XML in suites.dir (by file name without
+ * .xml) and from register(); unknown names fall back to suites.default like the old switch did.
+ * Each file is parsed once, its classes loaded and test methods resolved; runs get a deep copy
+ * they can modify. A watcher on suites.dir drops a plan as soon as its file changes.
+ */
+@Service
+public class SuitePlanCache {
+    /** A parsed suite file as kept in the cache. */
+    private record CachedPlan(List<XmlSuite> suites, long lastModified, long loadedAt) { }
+
+    @Value("${suites.dir:src/test/resources}")
+    private String suitesDir;
+
+    @Value("${suites.registry:blazedemo=blaze_smoke.xml,reqres=reqres_smoke.xml}")
+    private String registry;
+
+    @Value("${suites.default:testng.xml}")
+    private String defaultSuite;
+
+    @Value("${suites.watch:true}")
+    private boolean watch;
+
+    private final Map<String, Path> names = new ConcurrentHashMap<>();
+    private final Map<Path, CachedPlan> plans = new ConcurrentHashMap<>();
+    private WatchService watchService;
+
+    @PostConstruct
+    public void init() {
+        Path dir = Paths.get(suitesDir);
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(SuitePlanCache::isSuiteFile).forEach(this::registerFile);
+            } catch (IOException e) {
+                System.out.println("[ERROR] Failed to scan suite directory " + dir + ": " + e.getMessage());
+            }
+        }
+        // Explicit names win over file names
+        for (String entry : registry.split(",")) {
+            String[] pair = entry.split("=", 2);
+            if (pair.length == 2 && !pair[0].isBlank()) {
+                names.put(pair[0].trim().toLowerCase(), resolve(pair[1].trim()));
+            }
+        }
+        if (watch && Files.isDirectory(dir)) {
+            startWatcher(dir);
+        }
+        System.out.println("[DEBUG] SuitePlanCache registered suites: " + names.keySet());
+    }
+
+    /**
+     * Registers (or re-points) a suite name and parses the file right away so a broken file
+     * is reported to the caller rather than to the first run.
+     * @throws IllegalArgumentException when the file is missing or not a valid suite
+     */
+    public void register(String name, String file) {
+        Path path = resolve(file);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("Suite file not found: " + path);
+        }
+        try {
+            load(path);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        names.put(name.trim().toLowerCase(), path);
+        System.out.println("[DEBUG] Registered suite " + name + " -> " + path);
+    }
+
+    /** Registered names with their file and whether a parsed plan is cached. */
+    public List<Map<String, Object>> list() {
+        List<Map<String, Object>> suites = new ArrayList<>();
+        names.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(e -> {
+            Map<String, Object> suite = new LinkedHashMap<>();
+            suite.put("name", e.getKey());
+            suite.put("file", e.getValue().toString());
+            CachedPlan plan = plans.get(e.getValue());
+            suite.put("cached", plan != null);
+            if (plan != null) suite.put("loadedAt", plan.loadedAt());
+            suites.add(suite);
+        });
+        return suites;
+    }
+
+    /** A private copy of the suite's plan, safe to modify (thread counts, method filters). */
+    public List<XmlSuite> getPlan(String suite) {
+        Path path = names.get(suite.toLowerCase());
+        if (path == null) {
+            System.out.println("[DEBUG] Unknown suite " + suite + ", using " + defaultSuite);
+            path = resolve(defaultSuite);
+        }
+        List<XmlSuite> copies = new ArrayList<>();
+        for (XmlSuite xmlSuite : load(path).suites()) {
+            copies.add(copy(xmlSuite));
+        }
+        return copies;
+    }
+
+    private CachedPlan load(Path path) {
+        CachedPlan plan = plans.get(path);
+        long lastModified = lastModified(path);
+        // The modification time check covers platforms where the watcher misses events
+        if (plan != null && plan.lastModified() == lastModified) {
+            return plan;
+        }
+        plan = parse(path, lastModified);
+        plans.put(path, plan);
+        return plan;
+    }
+
+    private CachedPlan parse(Path path, long lastModified) {
+        long start = System.nanoTime();
+        try {
+            Collection<XmlSuite> parsedSuites = new Parser(path.toString()).parse();
+            List<XmlSuite> suites = new ArrayList<>(parsedSuites);
+            for (XmlSuite suite : suites) {
+                // Loads every class and warms the resolver, so runs and reruns skip the reflection
+                TestMethodResolver.resolve(suite);
+            }
+            System.out.println("[DEBUG] Parsed suite plan " + path + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return new CachedPlan(suites, lastModified, System.currentTimeMillis());
+        } catch (Exception e) {
+            System.out.println("[ERROR] Failed to parse suite XML: " + e.getMessage());
+            throw new IllegalStateException("Failed to parse suite XML " + path, e);
+        }
+    }
+
+    /** Deep copy: suite, tests and classes are new objects; strings and lists of strings are copied. */
+    public static XmlSuite copy(XmlSuite source) {
+        XmlSuite copy = source.shallowCopy();
+        copy.setListeners(new ArrayList<>(source.getListeners()));
+        copy.setParameters(new LinkedHashMap<>(source.getParameters()));
+        copy.setIncludedGroups(new ArrayList<>(source.getIncludedGroups()));
+        copy.setExcludedGroups(new ArrayList<>(source.getExcludedGroups()));
+        copy.setPreserveOrder(source.getPreserveOrder());
+        copy.setGroupByInstances(source.getGroupByInstances());
+        for (XmlTest test : source.getTests()) {
+            copyTest(test, copy, className -> true);
+        }
+        for (XmlSuite child : source.getChildSuites()) {
+            XmlSuite childCopy = copy(child);
+            childCopy.setParentSuite(copy);
+            copy.getChildSuites().add(childCopy);
+        }
+        return copy;
+    }
+
+    /** Adds a copy of test to suite holding only the classes accepted by classFilter. */
+    public static XmlTest copyTest(XmlTest test, XmlSuite suite, Predicate<String> classFilter) {
+        XmlTest copy = new XmlTest(suite, test.getIndex());
+        copy.setName(test.getName());
+        copy.setParameters(new LinkedHashMap<>(test.getLocalParameters()));
+        copy.setIncludedGroups(new ArrayList<>(test.getIncludedGroups()));
+        copy.setExcludedGroups(new ArrayList<>(test.getExcludedGroups()));
+        // Packages are copied too: TestNG resolves and caches their classes on the instance it runs
+        List<XmlPackage> packages = new ArrayList<>();
+        for (XmlPackage xmlPackage : test.getXmlPackages()) {
+            XmlPackage packageCopy = new XmlPackage(xmlPackage.getName());
+            packageCopy.setInclude(new ArrayList<>(xmlPackage.getInclude()));
+            packageCopy.setExclude(new ArrayList<>(xmlPackage.getExclude()));
+            packages.add(packageCopy);
+        }
+        copy.setXmlPackages(packages);
+        copy.setParallel(test.getParallel());
+        copy.setThreadCount(test.getThreadCount());
+        copy.setPreserveOrder(test.getPreserveOrder());
+        if (test.getTimeOut() != null) copy.setTimeOut(Long.parseLong(test.getTimeOut()));
+        List<XmlClass> classes = new ArrayList<>();
+        for (XmlClass xmlClass : test.getXmlClasses()) {
+            if (!classFilter.test(xmlClass.getName())) continue;
+            XmlClass classCopy = (XmlClass) xmlClass.clone();
+            classCopy.setIncludedMethods(new ArrayList<>(xmlClass.getIncludedMethods()));
+            classCopy.setExcludedMethods(new ArrayList<>(xmlClass.getExcludedMethods()));
+            classCopy.setXmlTest(copy);
+            classes.add(classCopy);
+        }
+        copy.setXmlClasses(classes);
+        return copy;
+    }
+
+    private void startWatcher(Path dir) {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            System.out.println("[ERROR] Suite file watcher not started, relying on modification times: " + e.getMessage());
+            return;
+        }
+        Thread watcher = new Thread(() -> watchLoop(dir), "suite-plan-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watchLoop(Path dir) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        plans.clear();
+                        continue;
+                    }
+                    Path path = resolve(dir.resolve((Path) event.context()).toString());
+                    if (!path.toString().endsWith(".xml")) continue;
+                    if (plans.remove(path) != null) {
+                        System.out.println("[DEBUG] Suite plan invalidated: " + path);
+                    }
+                    // A new file may still be empty on CREATE, so MODIFY can register it too
+                    if (event.kind() != StandardWatchEventKinds.ENTRY_DELETE && isSuiteFile(path)) {
+                        registerFile(path);
+                    }
+                }
+                if (!key.reset()) break;
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    // Registers a file under its name without .xml unless the name is already taken
+    private void registerFile(Path file) {
+        String name = file.getFileName().toString().replaceFirst("\\.xml$", "").toLowerCase();
+        names.putIfAbsent(name, resolve(file.toString()));
+    }
+
+    private Path resolve(String file) {
+        Path path = Paths.get(file);
+        if (!path.isAbsolute() && path.getParent() == null) {
+            path = Paths.get(suitesDir).resolve(path);
+        }
+        return path.toAbsolutePath().normalize();
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Other XML in the directory (log4j2.xml etc.) is not a TestNG suite
+    private static boolean isSuiteFile(Path file) {
+        if (!file.toString().endsWith(".xml") || !Files.isRegularFile(file)) return false;
+        try {
+            return Files.readString(file).contains("<suite");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.out.println("[ERROR] Failed to close suite file watcher: " + e.getMessage());
+        }
+    }
+}
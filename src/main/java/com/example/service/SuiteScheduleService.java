@@ -0,0 +1,148 @@
+package com.example.service;
+
+import com.example.model.RunPriority;
+import com.example.model.SuiteSchedule;
+import com.example.repository.SuiteScheduleRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Persisted cron and one-off schedules, dispatched into the engine as SCHEDULED runs.
+ * Every poll submits the schedules that are due, oldest first:
+ * - a schedule that was due longer than schedule.misfire-grace-seconds ago (the service was
+ *   down or the queue was full) fires once, however many occurrences were missed, and then
+ *   continues from now; at most schedule.max-catch-up-per-poll such runs start per poll
+ * - no more than schedule.max-queued scheduled runs wait in the engine queue at a time, so a
+ *   nightly batch cannot fill the queue that interactive requests need
+ * Schedules left over stay due and are picked up by a later poll.
+ */
+@Service
+public class SuiteScheduleService {
+    @Autowired
+    private SuiteScheduleRepository suiteScheduleRepository;
+
+    @Autowired
+    private SuiteExecutionEngine suiteExecutionEngine;
+
+    @Value("${schedule.misfire-grace-seconds:300}")
+    private long misfireGraceSeconds;
+
+    @Value("${schedule.max-catch-up-per-poll:1}")
+    private int maxCatchUpPerPoll;
+
+    @Value("${schedule.max-queued:5}")
+    private int maxQueued;
+
+    @Value("${schedule.nightly.suites:}")
+    private String nightlySuites;
+
+    @Value("${schedule.nightly.cron:0 0 2 * * *}")
+    private String nightlyCron;
+
+    // Nightly suites from the properties become ordinary schedules named nightly-<suite>
+    @PostConstruct
+    public void seedNightlySchedules() {
+        for (String suite : nightlySuites.split(",")) {
+            if (suite.isBlank()) continue;
+            String name = "nightly-" + suite.trim().toLowerCase();
+            try {
+                if (suiteScheduleRepository.findByName(name).isEmpty()) {
+                    create(name, suite.trim(), nightlyCron, null, 0);
+                }
+            } catch (Exception e) {
+                System.out.println("[ERROR] Failed to seed schedule " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates a recurring (cron) or one-off (runAt) schedule.
+     * @throws IllegalArgumentException for an invalid cron expression or when neither is given
+     */
+    public SuiteSchedule create(String name, String suite, String cron, LocalDateTime runAt, int maxParallelTests) {
+        if (suite == null || suite.isBlank()) {
+            throw new IllegalArgumentException("suiteId is required");
+        }
+        SuiteSchedule schedule = new SuiteSchedule();
+        LocalDateTime now = LocalDateTime.now();
+        if (cron != null && !cron.isBlank()) {
+            schedule.setCronExpression(cron.trim());
+            schedule.setNextRunAt(CronExpression.parse(cron.trim()).next(now));
+        } else if (runAt != null) {
+            schedule.setNextRunAt(runAt);
+        } else {
+            throw new IllegalArgumentException("Either a cron expression or a run time is required");
+        }
+        schedule.setName(name != null && !name.isBlank() ? name : suite + "-" + System.currentTimeMillis());
+        schedule.setSuite(suite);
+        schedule.setMaxParallelTests(maxParallelTests);
+        schedule.setCreatedAt(now);
+        SuiteSchedule saved = suiteScheduleRepository.save(schedule);
+        System.out.println("[DEBUG] Created schedule " + saved.getName() + " for " + suite + ", next run at " + saved.getNextRunAt());
+        return saved;
+    }
+
+    public List<SuiteSchedule> list() {
+        return suiteScheduleRepository.findAll();
+    }
+
+    public boolean delete(Long id) {
+        if (!suiteScheduleRepository.existsById(id)) return false;
+        suiteScheduleRepository.deleteById(id);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${schedule.poll-interval-ms:15000}", initialDelayString = "${schedule.poll-initial-delay-ms:10000}")
+    public void dispatchDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<SuiteSchedule> due;
+        try {
+            due = suiteScheduleRepository.findByEnabledTrueAndNextRunAtLessThanEqualOrderByNextRunAtAsc(now);
+        } catch (Exception e) {
+            System.out.println("[ERROR] Failed to load due schedules: " + e.getMessage());
+            return;
+        }
+        int catchUp = 0;
+        for (SuiteSchedule schedule : due) {
+            if (suiteExecutionEngine.getQueueDepth(RunPriority.SCHEDULED) >= maxQueued) {
+                System.out.println("[DEBUG] " + maxQueued + " scheduled runs already queued, deferring " + (due.size() - due.indexOf(schedule)) + " due schedules");
+                break;
+            }
+            boolean misfired = schedule.getNextRunAt().isBefore(now.minusSeconds(misfireGraceSeconds));
+            if (misfired && catchUp >= maxCatchUpPerPoll) continue;
+            String executionId;
+            try {
+                executionId = suiteExecutionEngine.submit(schedule.getSuite(), schedule.getMaxParallelTests(), RunPriority.SCHEDULED);
+            } catch (RejectedExecutionException e) {
+                System.out.println("[DEBUG] Engine rejected schedule " + schedule.getName() + " (" + e.getMessage() + "), retrying next poll");
+                break;
+            }
+            if (misfired) {
+                catchUp++;
+                System.out.println("[DEBUG] Recovered misfired schedule " + schedule.getName() + " (due " + schedule.getNextRunAt() + ") as one run");
+            }
+            schedule.setLastRunAt(now);
+            schedule.setLastExecutionId(executionId);
+            if (schedule.getCronExpression() != null) {
+                // Next occurrence after now: missed occurrences are skipped, not replayed
+                schedule.setNextRunAt(CronExpression.parse(schedule.getCronExpression()).next(now));
+            } else {
+                schedule.setEnabled(false);
+            }
+            try {
+                suiteScheduleRepository.save(schedule);
+            } catch (Exception e) {
+                System.out.println("[ERROR] Failed to save schedule " + schedule.getName() + ": " + e.getMessage());
+            }
+            System.out.println("[DEBUG] Schedule " + schedule.getName() + " queued execution " + executionId);
+        }
+    }
+}
@@ -2,16 +2,29 @@ package com.example.service;
 
 import com.example.model.TestCase;
 import com.example.repository.TestCaseRepository;
+import com.example.util.NdjsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class TestCaseService {
     @Autowired
     private TestCaseRepository testCaseRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public TestCase saveTestCase(TestCase testCase) {
         return testCaseRepository.save(testCase);
@@ -24,4 +37,17 @@ public class TestCaseService {
     public List<TestCase> getAllTestCases() {
         return testCaseRepository.findAll();
     }
+
+    public KeysetPage<TestCase> getTestCasePage(Long cursor, int limit, String type, String status) {
+        int size = KeysetPage.clampLimit(limit);
+        List<TestCase> rows = testCaseRepository.findPageAfter(cursor == null ? 0L : cursor, type, status, PageRequest.of(0, size + 1));
+        return KeysetPage.of(rows, size, TestCase::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportTestCases(String type, String status, OutputStream out) throws IOException {
+        try (Stream<TestCase> rows = testCaseRepository.streamFiltered(type, status)) {
+            return NdjsonUtil.writeAll(rows, out, objectMapper, entityManager::detach);
+        }
+    }
 }
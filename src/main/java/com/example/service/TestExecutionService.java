@@ -0,0 +1,51 @@
+package com.example.service;
+
+import com.example.model.TestExecution;
+import com.example.repository.TestExecutionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Persists execution lifecycle rows (test_execution) from the in-memory ExecutionRecord.
+ * Failures are logged and swallowed: a DB hiccup must not fail the run itself.
+ */
+@Service
+public class TestExecutionService {
+    @Autowired
+    private TestExecutionRepository testExecutionRepository;
+
+    public void save(ExecutionRecord record) {
+        try {
+            TestExecution execution = testExecutionRepository.findByExecutionId(record.getExecutionId())
+                    .orElseGet(TestExecution::new);
+            execution.setExecutionId(record.getExecutionId());
+            execution.setSuite(record.getSuite());
+            execution.setStatus(record.getStatus());
+            execution.setQueuedAt(toLocalDateTime(record.getQueuedAt()));
+            execution.setStartedAt(toLocalDateTime(record.getStartedAt()));
+            execution.setFinishedAt(toLocalDateTime(record.getFinishedAt()));
+            execution.setTotal(record.getTotal());
+            execution.setPassed(record.getPassed());
+            execution.setFailed(record.getFailed());
+            execution.setSkipped(record.getSkipped());
+            execution.setRerunOf(record.getRerunOf());
+            execution.setPriority(record.getPriority());
+            testExecutionRepository.save(execution);
+        } catch (Exception e) {
+            System.out.println("[ERROR] Failed to save execution " + record.getExecutionId() + " to DB: " + e.getMessage());
+        }
+    }
+
+    public Optional<TestExecution> getExecution(String executionId) {
+        return testExecutionRepository.findByExecutionId(executionId);
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return millis == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
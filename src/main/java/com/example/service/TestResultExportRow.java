@@ -0,0 +1,24 @@
+package com.example.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * One exported test result: the columns of test_result with the test case as its id only.
+ * Exports select these directly, so no entity or lazy test case proxy is touched while the
+ * streaming result set is open.
+ */
+public record TestResultExportRow(
+        Long id,
+        Long testCaseId,
+        String executionId,
+        String testName,
+        String className,
+        int parameterIndex,
+        String suiteName,
+        String status,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        Long durationMs,
+        String artifactLink,
+        String errorMessage) {
+}
@@ -0,0 +1,15 @@
+package com.example.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for paging and exporting test results; null fields are ignored.
+ * from is inclusive and to exclusive, both on startTime.
+ */
+public record TestResultFilter(
+        String suite,
+        String status,
+        String executionId,
+        LocalDateTime from,
+        LocalDateTime to) {
+}
@@ -1,11 +1,28 @@
 package com.example.service;
 
 import com.example.model.TestResult;
+import com.example.model.TestExecution;
+import com.example.repository.TestExecutionRepository;
 import com.example.repository.TestResultRepository;
+import com.example.scheduler.DurationHistory;
+import com.example.util.NdjsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class TestResultService {
@@ -22,12 +39,105 @@ public class TestResultService {
     }
     @Autowired
     private TestResultRepository testResultRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TestExecutionRepository testExecutionRepository;
+    @Autowired
+    private TestStatisticsService testStatisticsService;
 
     public TestResult saveTestResult(TestResult testResult) {
-        return testResultRepository.save(testResult);
+        TestResult saved = testResultRepository.save(testResult);
+        try {
+            testStatisticsService.record(List.of(saved));
+        } catch (Exception e) {
+            System.out.println("[ERROR] Failed to update test statistics for " + saved.getTestName() + ": " + e.getMessage());
+        }
+        return saved;
+    }
+
+    /** Persist a batch in one transaction; inserts are grouped into JDBC batches by Hibernate. */
+    @Transactional
+    public List<TestResult> saveAllTestResults(List<TestResult> testResults) {
+        return testResultRepository.saveAll(testResults);
+    }
+
+    /**
+     * Rolling average duration (ms) per test over the last historyDays days, keyed as
+     * DurationHistory.key(className, method) (the bare method name for rows without a class).
+     */
+    public Map<String, Long> getRecentDurations(int historyDays) {
+        Map<String, Long> durations = new HashMap<>();
+        for (TestResultRepository.DurationStat stat : testResultRepository.findDurationStatsSince(LocalDateTime.now().minusDays(historyDays))) {
+            if (stat.getAvgDurationMs() != null) {
+                String test = stat.getClassName() == null ? stat.getTestName() : DurationHistory.key(stat.getClassName(), stat.getTestName());
+                durations.put(test, Math.round(stat.getAvgDurationMs()));
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Merged DB view of an execution and its reruns: the latest result of each test invocation
+     * (class, method and data-provider index), ordered by start time.
+     */
+    public List<TestResult> getMergedResults(String executionId) {
+        List<String> executionIds = new ArrayList<>();
+        executionIds.add(executionId);
+        for (TestExecution rerun : testExecutionRepository.findByRerunOf(executionId)) {
+            executionIds.add(rerun.getExecutionId());
+        }
+        Map<String, TestResult> latest = new HashMap<>();
+        for (TestResult r : testResultRepository.findByExecutionIdIn(executionIds)) {
+            latest.merge(methodKey(r) + "[" + r.getParameterIndex() + "]", r, (a, b) -> isLater(b, a) ? b : a);
+        }
+        List<TestResult> merged = new ArrayList<>(latest.values());
+        merged.sort(Comparator.comparing(TestResult::getStartTime, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return merged;
+    }
+
+    /**
+     * Methods with an invocation still FAILED or SKIPPED in the merged view, as "className#method"
+     * (the bare method name for rows stored without a class name).
+     */
+    public Set<String> getFailingMethods(String executionId) {
+        Set<String> methods = new LinkedHashSet<>();
+        for (TestResult r : getMergedResults(executionId)) {
+            if (!"PASSED".equals(r.getStatus())) methods.add(methodKey(r));
+        }
+        return methods;
+    }
+
+    private static String methodKey(TestResult r) {
+        return r.getClassName() != null ? r.getClassName() + "#" + r.getTestName() : r.getTestName();
+    }
+
+    private static boolean isLater(TestResult candidate, TestResult current) {
+        if (candidate.getStartTime() == null || current.getStartTime() == null) {
+            return candidate.getId() != null && current.getId() != null && candidate.getId() > current.getId();
+        }
+        return candidate.getStartTime().isAfter(current.getStartTime());
     }
 
     public List<TestResult> getAllTestResults() {
         return testResultRepository.findAll();
     }
+
+    public KeysetPage<TestResult> getTestResultPage(Long cursor, int limit, TestResultFilter f) {
+        int size = KeysetPage.clampLimit(limit);
+        List<TestResult> rows = testResultRepository.findPageAfter(cursor == null ? 0L : cursor,
+                f.suite(), f.status(), f.executionId(), f.from(), f.to(), PageRequest.of(0, size + 1));
+        return KeysetPage.of(rows, size, TestResult::getId);
+    }
+
+    /**
+     * Streams matching rows as NDJSON from a forward-only cursor. Rows are flat projections,
+     * not entities, so serializing them never loads the lazy test case mid-stream.
+     */
+    @Transactional(readOnly = true)
+    public long exportTestResults(TestResultFilter f, OutputStream out) throws IOException {
+        try (Stream<TestResultExportRow> rows = testResultRepository.streamExportRows(f.suite(), f.status(), f.executionId(), f.from(), f.to())) {
+            return NdjsonUtil.writeAll(rows, out, objectMapper);
+        }
+    }
 }
@@ -0,0 +1,155 @@
+package com.example.service;
+
+import com.example.model.TestResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind sink for test results.
+ * Report generation only enqueues rows; a single flusher thread persists them in JDBC
+ * batches once batch-size rows are waiting or flush-interval-ms has passed, whichever
+ * comes first. The buffer is bounded: when it is full, enqueue blocks (backpressure)
+ * rather than dropping results. Each written batch is then folded into test_statistics.
+ */
+@Component
+public class TestResultWriteBehind {
+    @Autowired
+    private TestResultService testResultService;
+
+    @Autowired
+    private ExecutionMetrics executionMetrics;
+
+    @Autowired
+    private TestStatisticsService testStatisticsService;
+
+    @Value("${results.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${results.write-behind.batch-size:50}")
+    private int batchSize;
+
+    @Value("${results.write-behind.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<TestResult> buffer;
+    private Thread flusher;
+    private volatile boolean running;
+
+    // enqueued/persisted sequence numbers let flush() wait for exactly what was queued before it
+    private final Object progressLock = new Object();
+    private long enqueued;
+    private long persisted;
+
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        flusher = new Thread(this::runFlusher, "result-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        executionMetrics.bindWriteBehind(this);
+    }
+
+    /** Queue a result for persistence; blocks while the buffer is full. */
+    public void enqueue(TestResult result) {
+        try {
+            synchronized (progressLock) {
+                enqueued++;
+            }
+            buffer.put(result);
+        } catch (InterruptedException e) {
+            markPersisted(1);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Blocks until every result enqueued before this call has been written (or failed). */
+    public void flush() {
+        synchronized (progressLock) {
+            long target = enqueued;
+            while (persisted < target && flusher.isAlive()) {
+                try {
+                    progressLock.wait(flushIntervalMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    private void runFlusher() {
+        List<TestResult> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                TestResult first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushIntervalMs;
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) break;
+                    TestResult next = buffer.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next != null) batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // shutdown: fall through and write whatever was collected
+                running = false;
+            }
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<TestResult> batch) {
+        if (batch.isEmpty()) return;
+        long startNanos = System.nanoTime();
+        try {
+            testResultService.saveAllTestResults(batch);
+            executionMetrics.recordPersist(batch.size(), System.nanoTime() - startNanos);
+        } catch (Exception e) {
+            System.out.println("[ERROR] Failed to save batch of " + batch.size() + " test results to DB: " + e.getMessage());
+            markPersisted(batch.size());
+            return;
+        }
+        // Separate transaction: a failed statistics update must not cost the results themselves
+        try {
+            testStatisticsService.record(batch);
+        } catch (Exception e) {
+            System.out.println("[ERROR] Failed to update test statistics for " + batch.size() + " results: " + e.getMessage());
+        } finally {
+            markPersisted(batch.size());
+        }
+    }
+
+    private void markPersisted(int count) {
+        synchronized (progressLock) {
+            persisted += count;
+            progressLock.notifyAll();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.service;
+
+import com.example.model.TestResult;
+import com.example.model.TestStatistics;
+import com.example.repository.TestResultRepository;
+import com.example.repository.TestStatisticsRepository;
+import com.example.scheduler.DurationHistory;
+import com.example.util.DurationSketch;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Keeps test_statistics in step with test_result: each written batch is folded into the
+ * rows of its tests, so "which tests are slow or flaky" reads one row per test instead of
+ * scanning the history. An empty table is filled once from the existing history at startup.
+ */
+@Service
+public class TestStatisticsService {
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "flakiness", "flakiness",
+            "p95", "p95DurationMs",
+            "p50", "p50DurationMs",
+            "passrate", "passRate",
+            "runs", "runs");
+
+    @Autowired
+    private TestStatisticsRepository testStatisticsRepository;
+    @Autowired
+    private TestResultRepository testResultRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Weight of the newest result in recentPassRate (exponentially weighted)
+    @Value("${stats.recent-weight:0.1}")
+    private double recentWeight;
+
+    @Value("${stats.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @PostConstruct
+    public void init() {
+        if (!backfillOnStartup) return;
+        try {
+            if (testStatisticsRepository.count() == 0) backfill();
+        } catch (Exception e) {
+            System.out.println("[ERROR] Failed to backfill test statistics: " + e.getMessage());
+        }
+    }
+
+    /** Folds a batch of results, in start-time order, into the statistics of their tests. */
+    @Transactional
+    public void record(List<TestResult> results) {
+        if (results.isEmpty()) return;
+        Set<String> suites = new HashSet<>();
+        Set<String> tests = new HashSet<>();
+        for (TestResult r : results) {
+            if (r.getTestName() == null) continue;
+            suites.add(suiteOf(r));
+            tests.add(r.getTestName());
+        }
+        if (tests.isEmpty()) return;
+        Map<String, TestStatistics> stats = new HashMap<>();
+        for (TestStatistics s : testStatisticsRepository.findForUpdate(suites, tests)) {
+            stats.put(key(s.getSuiteName(), s.getClassName(), s.getTestName()), s);
+        }
+        Map<String, DurationSketch> sketches = new HashMap<>();
+        List<TestResult> ordered = new ArrayList<>(results);
+        ordered.sort(Comparator.comparing(TestResult::getStartTime, Comparator.nullsFirst(Comparator.naturalOrder())));
+        for (TestResult r : ordered) {
+            fold(stats, sketches, r);
+        }
+        testStatisticsRepository.saveAll(finish(stats, sketches));
+    }
+
+    /**
+     * Statistics sorted by flakiness, p95, p50, passRate or runs (highest first, passRate lowest
+     * first), optionally for one suite.
+     */
+    public List<TestStatistics> list(String suite, String sort, int limit) {
+        String property = SORT_COLUMNS.getOrDefault(sort.toLowerCase(), "flakiness");
+        Sort order = "passRate".equals(property) ? Sort.by(Sort.Order.asc(property)) : Sort.by(Sort.Order.desc(property));
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, 1000)), order.and(Sort.by("testName")));
+        return suite == null
+                ? testStatisticsRepository.findAll(page).getContent()
+                : testStatisticsRepository.findBySuiteName(suite, page).getContent();
+    }
+
+    /**
+     * Median duration per test, keyed as DurationHistory.key(className, method) (the bare method
+     * name for rows without a class), the one with the most runs when a test is in several suites.
+     */
+    public Map<String, Long> getExpectedDurations() {
+        Map<String, TestStatistics> best = new HashMap<>();
+        for (TestStatistics s : testStatisticsRepository.findAll()) {
+            if (s.getP50DurationMs() == null) continue;
+            String test = s.getClassName().isEmpty() ? s.getTestName() : DurationHistory.key(s.getClassName(), s.getTestName());
+            best.merge(test, s, (a, b) -> b.getRuns() > a.getRuns() ? b : a);
+        }
+        Map<String, Long> durations = new HashMap<>();
+        best.forEach((test, s) -> durations.put(test, s.getP50DurationMs()));
+        return durations;
+    }
+
+    // One pass over test_result in id order; only one row per test is held in memory
+    private void backfill() {
+        Map<String, TestStatistics> stats = new LinkedHashMap<>();
+        Map<String, DurationSketch> sketches = new HashMap<>();
+        Long rows = transactionTemplate.execute(status -> {
+            long n = 0;
+            try (Stream<TestResult> results = testResultRepository.streamFiltered(null, null, null, null, null)) {
+                for (TestResult r : (Iterable<TestResult>) results::iterator) {
+                    fold(stats, sketches, r);
+                    entityManager.detach(r);
+                    n++;
+                }
+            }
+            return n;
+        });
+        if (stats.isEmpty()) return;
+        List<TestStatistics> finished = finish(stats, sketches);
+        transactionTemplate.executeWithoutResult(status -> testStatisticsRepository.saveAll(finished));
+        System.out.println("[DEBUG] Backfilled statistics of " + finished.size() + " tests from " + rows + " results");
+    }
+
+    private void fold(Map<String, TestStatistics> stats, Map<String, DurationSketch> sketches, TestResult r) {
+        if (r.getTestName() == null) return;
+        String key = key(suiteOf(r), classOf(r), r.getTestName());
+        TestStatistics s = stats.computeIfAbsent(key, k -> {
+            TestStatistics created = new TestStatistics();
+            created.setSuiteName(suiteOf(r));
+            created.setClassName(classOf(r));
+            created.setTestName(r.getTestName());
+            return created;
+        });
+        DurationSketch sketch = sketches.computeIfAbsent(key, k -> DurationSketch.decode(s.getDurationSketch()));
+        s.setRuns(s.getRuns() + 1);
+        if (r.getStartTime() != null && (s.getLastRunAt() == null || r.getStartTime().isAfter(s.getLastRunAt()))) {
+            s.setLastRunAt(r.getStartTime());
+        }
+        if ("SKIPPED".equals(r.getStatus())) {
+            s.setSkipped(s.getSkipped() + 1);
+            return;
+        }
+        String outcome = "PASSED".equals(r.getStatus()) ? "PASSED" : "FAILED";
+        if (outcome.equals("PASSED")) s.setPassed(s.getPassed() + 1); else s.setFailed(s.getFailed() + 1);
+        if (s.getLastOutcome() != null && !s.getLastOutcome().equals(outcome)) s.setFlips(s.getFlips() + 1);
+        s.setLastOutcome(outcome);
+        double value = outcome.equals("PASSED") ? 1 : 0;
+        long decided = s.getPassed() + s.getFailed();
+        s.setRecentPassRate(decided == 1 ? value : s.getRecentPassRate() + recentWeight * (value - s.getRecentPassRate()));
+        if (r.getDurationMs() != null) {
+            sketch.add(r.getDurationMs());
+            if (s.getMaxDurationMs() == null || r.getDurationMs() > s.getMaxDurationMs()) s.setMaxDurationMs(r.getDurationMs());
+        }
+    }
+
+    // Derived columns are refreshed once per touched row rather than per result
+    private static List<TestStatistics> finish(Map<String, TestStatistics> stats, Map<String, DurationSketch> sketches) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TestStatistics> touched = new ArrayList<>();
+        sketches.forEach((key, sketch) -> {
+            TestStatistics s = stats.get(key);
+            long decided = s.getPassed() + s.getFailed();
+            s.setPassRate(decided > 0 ? (double) s.getPassed() / decided : 0);
+            s.setFlakiness(decided > 1 ? (double) s.getFlips() / (decided - 1) : 0);
+            s.setDurationSketch(sketch.encode());
+            s.setP50DurationMs(sketch.quantile(0.5));
+            s.setP95DurationMs(sketch.quantile(0.95));
+            s.setUpdatedAt(now);
+            touched.add(s);
+        });
+        return touched;
+    }
+
+    private static String suiteOf(TestResult r) {
+        return r.getSuiteName() != null ? r.getSuiteName() : "";
+    }
+
+    private static String classOf(TestResult r) {
+        return r.getClassName() != null ? r.getClassName() : "";
+    }
+
+    private static String key(String suite, String className, String test) {
+        return suite + '\u0000' + className + '\u0000' + test;
+    }
+}
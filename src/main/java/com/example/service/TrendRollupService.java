@@ -0,0 +1,173 @@
+package com.example.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hourly and daily suite trends (tests, passed/failed/skipped, runtime) kept in rollup tables,
+ * so trend queries never touch test_result.
+ * Rows are aggregated incrementally in id order behind a watermark: each pass folds in the ids
+ * up to the highest id seen by the previous pass, in chunks that each commit together with the
+ * watermark, so every row is counted exactly once. Archived rows are read from
+ * test_result_archive, which keeps their ids.
+ * Retention then downsamples: hourly rollups and archived raw rows past their windows are
+ * deleted, leaving the daily rollups as the long-term history.
+ */
+@Service
+public class TrendRollupService {
+    private static final String WATERMARK = "test_result";
+
+    private static final String SOURCE = "(SELECT suite_name, start_time, status, duration_ms FROM test_result"
+            + " WHERE id > ? AND id <= ? AND start_time IS NOT NULL"
+            + " UNION ALL SELECT suite_name, start_time, status, duration_ms FROM test_result_archive"
+            + " WHERE id > ? AND id <= ? AND start_time IS NOT NULL) r";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Width of one aggregation chunk in result ids
+    @Value("${trends.batch-size:50000}")
+    private long batchSize;
+
+    @Value("${trends.hourly-retention-days:35}")
+    private int hourlyRetentionDays;
+
+    // Archived raw rows older than this are deleted once rolled up; 0 keeps them
+    @Value("${trends.raw-retention-days:365}")
+    private int rawRetentionDays;
+
+    @Value("${trends.retention.batch-size:5000}")
+    private int retentionBatchSize;
+
+    @Scheduled(fixedDelayString = "${trends.aggregate-interval-ms:300000}", initialDelay = 30000)
+    public void aggregate() {
+        Map<String, Object> watermark = jdbcTemplate.queryForMap(
+                "SELECT last_id, observed_max_id FROM rollup_watermark WHERE name = ?", WATERMARK);
+        long from = ((Number) watermark.get("last_id")).longValue();
+        long target = ((Number) watermark.get("observed_max_id")).longValue();
+        long start = System.nanoTime();
+        long rows = 0;
+        while (from < target) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(target, from + batchSize);
+            Integer merged = transactionTemplate.execute(status -> aggregateChunk(chunkFrom, chunkTo));
+            if (merged == null) break;
+            rows += merged;
+            from = chunkTo;
+        }
+        // Rows up to the current max are aggregated next pass, once transactions holding lower ids have committed
+        Long maxId = jdbcTemplate.queryForObject("SELECT GREATEST(COALESCE((SELECT MAX(id) FROM test_result), 0),"
+                + " COALESCE((SELECT MAX(id) FROM test_result_archive), 0))", Long.class);
+        jdbcTemplate.update("UPDATE rollup_watermark SET observed_max_id = GREATEST(observed_max_id, ?), updated_at = ? WHERE name = ?",
+                maxId, Timestamp.valueOf(LocalDateTime.now()), WATERMARK);
+        if (rows > 0) {
+            System.out.println("[DEBUG] Rolled up " + rows + " bucket updates through result id " + from
+                    + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+
+    // Returns null when another instance moved the watermark first
+    private Integer aggregateChunk(long from, long to) {
+        Long lastId = jdbcTemplate.queryForObject(
+                "SELECT last_id FROM rollup_watermark WHERE name = ? FOR UPDATE", Long.class, WATERMARK);
+        if (lastId == null || lastId != from) return null;
+        int merged = jdbcTemplate.update(upsert("result_rollup_hourly", "DATE_FORMAT(start_time, '%Y-%m-%d %H:00:00')"),
+                from, to, from, to);
+        merged += jdbcTemplate.update(upsert("result_rollup_daily", "DATE(start_time)"), from, to, from, to);
+        jdbcTemplate.update("UPDATE rollup_watermark SET last_id = ?, updated_at = ? WHERE name = ?",
+                to, Timestamp.valueOf(LocalDateTime.now()), WATERMARK);
+        return merged;
+    }
+
+    private static String upsert(String table, String bucket) {
+        return "INSERT INTO " + table + " (suite_name, bucket_start, tests, passed, failed, skipped, total_duration_ms, max_duration_ms)"
+                + " SELECT COALESCE(suite_name, ''), " + bucket + ", COUNT(*), COALESCE(SUM(status = 'PASSED'), 0),"
+                + " SUM(COALESCE(status, '') NOT IN ('PASSED', 'SKIPPED')), COALESCE(SUM(status = 'SKIPPED'), 0),"
+                + " COALESCE(SUM(duration_ms), 0), COALESCE(MAX(duration_ms), 0)"
+                + " FROM " + SOURCE + " GROUP BY 1, 2"
+                + " ON DUPLICATE KEY UPDATE tests = tests + VALUES(tests), passed = passed + VALUES(passed),"
+                + " failed = failed + VALUES(failed), skipped = skipped + VALUES(skipped),"
+                + " total_duration_ms = total_duration_ms + VALUES(total_duration_ms),"
+                + " max_duration_ms = GREATEST(max_duration_ms, VALUES(max_duration_ms))";
+    }
+
+    /** Deletes hourly rollups past their window and archived raw rows that are rolled up and past theirs. */
+    @Scheduled(cron = "${trends.retention.cron:0 45 3 * * *}")
+    public void applyRetention() {
+        Timestamp hourlyCutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(hourlyRetentionDays));
+        long hourly = deleteInBatches("DELETE FROM result_rollup_hourly WHERE bucket_start < ? LIMIT ?", hourlyCutoff);
+        long raw = 0;
+        if (rawRetentionDays > 0) {
+            Long lastId = jdbcTemplate.queryForObject("SELECT last_id FROM rollup_watermark WHERE name = ?", Long.class, WATERMARK);
+            Timestamp rawCutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(rawRetentionDays));
+            raw = deleteInBatches("DELETE FROM test_result_archive WHERE start_time < ? AND id <= ? LIMIT ?", rawCutoff, lastId);
+        }
+        if (hourly > 0 || raw > 0) {
+            System.out.println("[DEBUG] Trend retention removed " + hourly + " hourly rollups and " + raw + " archived results");
+        }
+    }
+
+    // sql takes the given arguments followed by the LIMIT
+    private long deleteInBatches(String sql, Object... args) {
+        Object[] withLimit = Arrays.copyOf(args, args.length + 1);
+        withLimit[args.length] = retentionBatchSize;
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(sql, withLimit);
+            deleted += batch;
+        } while (batch == retentionBatchSize);
+        return deleted;
+    }
+
+    /**
+     * Trend buckets from the rollups only, oldest first. granularity is "hour" or "day";
+     * from/to default to the last 48 hours or 30 days.
+     */
+    public List<Map<String, Object>> trends(String suite, String granularity, LocalDateTime from, LocalDateTime to) {
+        boolean hourly = "hour".equalsIgnoreCase(granularity);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : hourly ? end.minusHours(48) : end.minusDays(30);
+        StringBuilder sql = new StringBuilder("SELECT suite_name, bucket_start, tests, passed, failed, skipped, total_duration_ms, max_duration_ms FROM ")
+                .append(hourly ? "result_rollup_hourly" : "result_rollup_daily")
+                .append(" WHERE bucket_start >= ? AND bucket_start < ?");
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(start), Timestamp.valueOf(end)));
+        if (suite != null) {
+            sql.append(" AND suite_name = ?");
+            args.add(suite);
+        }
+        sql.append(" ORDER BY bucket_start, suite_name");
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            long tests = rs.getLong("tests");
+            long passed = rs.getLong("passed");
+            long failed = rs.getLong("failed");
+            long totalDuration = rs.getLong("total_duration_ms");
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("suite", rs.getString("suite_name"));
+            bucket.put("bucketStart", rs.getTimestamp("bucket_start").toLocalDateTime());
+            bucket.put("tests", tests);
+            bucket.put("passed", passed);
+            bucket.put("failed", failed);
+            bucket.put("skipped", rs.getLong("skipped"));
+            bucket.put("passRate", passed + failed > 0 ? (double) passed / (passed + failed) : null);
+            bucket.put("totalDurationMs", totalDuration);
+            bucket.put("avgDurationMs", tests > 0 ? totalDuration / tests : 0);
+            bucket.put("maxDurationMs", rs.getLong("max_duration_ms"));
+            return bucket;
+        }, args.toArray());
+    }
+}
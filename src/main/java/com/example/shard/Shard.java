@@ -0,0 +1,20 @@
+package com.example.shard;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A unit of work handed to a worker JVM: one test method, or a whole class when its
+ * methods depend on each other. Carries everything needed to rebuild a one-class
+ * TestNG suite on the worker side.
+ */
+public record Shard(
+        int id,
+        String executionId,
+        String suiteName,
+        String testName,
+        String className,
+        List<String> methods,
+        Map<String, String> parameters,
+        List<String> listeners) {
+}
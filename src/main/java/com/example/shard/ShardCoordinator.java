@@ -0,0 +1,240 @@
+package com.example.shard;
+
+import com.example.report.ReportRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Coordinator side of a sharded run. Serves shards from one shared queue to any number of
+ * ShardWorker connections (newline-delimited JSON over a local TCP socket). Workers pull
+ * their next shard as soon as they finish one, so an idle worker always takes the next
+ * piece of work instead of waiting on a fixed split.
+ * A shard whose worker disconnects mid-run goes back to the front of the queue, up to
+ * maxAttempts times; after that its methods are reported as FAILED.
+ */
+public class ShardCoordinator implements Closeable {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final BlockingDeque<Shard> pending = new LinkedBlockingDeque<>();
+    private final Map<Integer, Integer> attempts = new ConcurrentHashMap<>();
+    private final Map<Integer, Shard> inFlight = new ConcurrentHashMap<>();
+    private final List<ReportRecord> results = new ArrayList<>();
+    private final Consumer<List<ReportRecord>> onResults;
+    private final int total;
+    private final int maxAttempts;
+
+    private final Object lock = new Object();
+    private int resolved;
+    private int liveWorkers;
+    private final AtomicInteger workersSeen = new AtomicInteger();
+    private final AtomicInteger retries = new AtomicInteger();
+    private volatile boolean finished;
+    private ServerSocket server;
+
+    public ShardCoordinator(List<Shard> shards, int maxAttempts, Consumer<List<ReportRecord>> onResults) {
+        this.pending.addAll(shards);
+        this.total = shards.size();
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.onResults = onResults;
+    }
+
+    /** Binds to the loopback interface (0 = any free port) and starts accepting workers. */
+    public int start(int port) throws IOException {
+        server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "shard-coordinator-" + server.getLocalPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server.getLocalPort();
+    }
+
+    /**
+     * Blocks until every shard has a result. Gives up when no worker is connected and either
+     * workersAlive reports none left or workerWaitMs passes without one connecting; shards
+     * still outstanding are then reported as SKIPPED.
+     */
+    public void awaitCompletion(long workerWaitMs, BooleanSupplier workersAlive) throws InterruptedException {
+        long idleSince = System.currentTimeMillis();
+        synchronized (lock) {
+            while (resolved < total) {
+                if (liveWorkers > 0) {
+                    idleSince = System.currentTimeMillis();
+                } else if (!workersAlive.getAsBoolean() || System.currentTimeMillis() - idleSince > workerWaitMs) {
+                    abortRemaining();
+                    break;
+                }
+                lock.wait(500);
+            }
+            finished = true;
+        }
+    }
+
+    public List<ReportRecord> getResults() {
+        synchronized (lock) {
+            return new ArrayList<>(results);
+        }
+    }
+
+    public int getShardCount() {
+        return total;
+    }
+
+    public int getWorkersSeen() {
+        return workersSeen.get();
+    }
+
+    public int getRetries() {
+        return retries.get();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> serve(socket), "shard-conn-" + socket.getPort());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.out.println("[ERROR] Shard coordinator accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        String workerId = "unknown";
+        Shard current = null;
+        synchronized (lock) {
+            liveWorkers++;
+        }
+        workersSeen.incrementAndGet();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                ShardMessage msg = mapper.readValue(line, ShardMessage.class);
+                switch (msg.type()) {
+                    case ShardMessage.HELLO -> {
+                        workerId = msg.workerId();
+                        System.out.println("[DEBUG] Shard worker connected: " + workerId);
+                    }
+                    case ShardMessage.RESULT -> {
+                        complete(msg.shard().id(), msg.results());
+                        current = null;
+                    }
+                    case ShardMessage.NEXT -> {
+                        current = next();
+                        send(out, current != null ? ShardMessage.shard(current) : ShardMessage.done());
+                        if (current == null) return;
+                    }
+                    default -> System.out.println("[ERROR] Unknown shard message from " + workerId + ": " + msg.type());
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            System.out.println("[ERROR] Shard worker " + workerId + " connection failed: " + e.getMessage());
+        } finally {
+            if (current != null) {
+                lost(current, workerId);
+            }
+            synchronized (lock) {
+                liveWorkers--;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /** Next shard to run, waiting while retries may still arrive; null once the run is over. */
+    private Shard next() throws InterruptedException {
+        while (!finished) {
+            Shard shard = pending.poll(500, TimeUnit.MILLISECONDS);
+            if (shard != null) {
+                inFlight.put(shard.id(), shard);
+                return shard;
+            }
+            synchronized (lock) {
+                if (resolved >= total) return null;
+            }
+        }
+        return null;
+    }
+
+    private void complete(int shardId, List<ReportRecord> records) {
+        if (inFlight.remove(shardId) == null) return;
+        List<ReportRecord> batch = records != null ? records : List.of();
+        onResults.accept(batch);
+        synchronized (lock) {
+            results.addAll(batch);
+            resolved++;
+            lock.notifyAll();
+        }
+    }
+
+    private void lost(Shard shard, String workerId) {
+        if (inFlight.remove(shard.id()) == null) return;
+        int attempt = attempts.merge(shard.id(), 1, Integer::sum);
+        if (attempt < maxAttempts && !finished) {
+            System.out.println("[DEBUG] Requeueing shard " + shard.id() + " lost with worker " + workerId);
+            retries.incrementAndGet();
+            pending.addFirst(shard);
+            return;
+        }
+        resolveWith(shard, "FAILED", "Shard worker " + workerId + " disconnected while running this test");
+    }
+
+    private void abortRemaining() {
+        List<Shard> leftover = new ArrayList<>();
+        pending.drainTo(leftover);
+        leftover.addAll(inFlight.values());
+        inFlight.clear();
+        for (Shard shard : leftover) {
+            resolveWith(shard, "SKIPPED", "No shard worker available to run this test");
+        }
+        System.out.println("[ERROR] Shard run aborted with " + leftover.size() + " shards outstanding");
+    }
+
+    private void resolveWith(Shard shard, String status, String error) {
+        long now = System.currentTimeMillis();
+        List<ReportRecord> batch = new ArrayList<>();
+        for (String method : shard.methods()) {
+            batch.add(new ReportRecord(method, method, shard.className(), shard.suiteName(), 0, status, now, now, "", error));
+        }
+        onResults.accept(batch);
+        synchronized (lock) {
+            results.addAll(batch);
+            resolved++;
+            lock.notifyAll();
+        }
+    }
+
+    private void send(BufferedWriter out, ShardMessage message) throws IOException {
+        out.write(mapper.writeValueAsString(message));
+        out.newLine();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        if (server != null) server.close();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.shard;
+
+import com.example.report.ReportRecord;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One line of the coordinator/worker protocol (newline-delimited JSON over TCP).
+ * Worker: HELLO, then NEXT / RESULT until the coordinator answers DONE.
+ * Coordinator: SHARD (work to run) or DONE (no work left, worker exits).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ShardMessage(String type, String workerId, Shard shard, List<ReportRecord> results) {
+    public static final String HELLO = "HELLO";
+    public static final String NEXT = "NEXT";
+    public static final String SHARD = "SHARD";
+    public static final String RESULT = "RESULT";
+    public static final String DONE = "DONE";
+
+    public static ShardMessage hello(String workerId) {
+        return new ShardMessage(HELLO, workerId, null, null);
+    }
+
+    public static ShardMessage next() {
+        return new ShardMessage(NEXT, null, null, null);
+    }
+
+    public static ShardMessage shard(Shard shard) {
+        return new ShardMessage(SHARD, null, shard, null);
+    }
+
+    public static ShardMessage result(Shard shard, List<ReportRecord> results) {
+        return new ShardMessage(RESULT, null, shard, results);
+    }
+
+    public static ShardMessage done() {
+        return new ShardMessage(DONE, null, null, null);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.shard;
+
+import com.example.report.ReportRecord;
+import com.example.util.ArtifactCapture;
+import com.example.util.ExecutionContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Worker JVM for sharded runs. Connects to a ShardCoordinator, pulls one shard at a time,
+ * runs it with TestNG and sends back the result records, until the coordinator says DONE.
+ * Pulling (rather than being assigned a fixed slice) is what lets an idle worker pick up
+ * work that a slower worker would otherwise have queued behind it.
+ *
+ * Usage: java -cp &lt;classpath&gt; com.example.shard.ShardWorker &lt;host&gt; &lt;port&gt; [workerId]
+ */
+public class ShardWorker {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String workerId;
+
+    public ShardWorker(String workerId) {
+        this.workerId = workerId;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: ShardWorker <host> <port> [workerId]");
+            System.exit(2);
+        }
+        // One test at a time per worker: one browser is enough, and keep it across shards
+        if (System.getProperty("webdriver.pool.size") == null) System.setProperty("webdriver.pool.size", "1");
+        if (System.getProperty("webdriver.pool.retainOnDetach") == null) System.setProperty("webdriver.pool.retainOnDetach", "true");
+        String workerId = args.length > 2 ? args[2] : "worker-" + ProcessHandle.current().pid();
+        new ShardWorker(workerId).run(args[0], Integer.parseInt(args[1]));
+        System.exit(0);
+    }
+
+    public void run(String host, int port) throws IOException {
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            System.out.println("[DEBUG] ShardWorker " + workerId + " connected to " + host + ":" + port);
+            send(out, ShardMessage.hello(workerId));
+            int shards = 0;
+            while (true) {
+                send(out, ShardMessage.next());
+                String line = in.readLine();
+                if (line == null) break;
+                ShardMessage msg = mapper.readValue(line, ShardMessage.class);
+                if (!ShardMessage.SHARD.equals(msg.type())) break;
+                List<ReportRecord> results = runShard(msg.shard());
+                send(out, ShardMessage.result(msg.shard(), results));
+                shards++;
+            }
+            System.out.println("[DEBUG] ShardWorker " + workerId + " finished after " + shards + " shards");
+        }
+    }
+
+    private List<ReportRecord> runShard(Shard shard) {
+        System.out.println("[DEBUG] ShardWorker " + workerId + " running shard " + shard.id() + ": " + shard.className() + " " + shard.methods());
+        ResultCollector collector = new ResultCollector();
+        TestNG testng = new TestNG(false);
+        testng.setXmlSuites(List.of(toXmlSuite(shard)));
+        testng.addListener(collector);
+        try {
+            testng.run();
+        } catch (Exception e) {
+            System.out.println("[ERROR] Shard " + shard.id() + " failed to run: " + e.getMessage());
+        }
+        // Artifacts linked from the results must be on disk before the coordinator reports them
+        List<String> missing = ArtifactCapture.get().flush(shard.executionId()).missing();
+        // Mapped after the run: the artifactPath attribute is set by @AfterMethod, after the listener fired
+        List<ReportRecord> results = new ArrayList<>();
+        for (Finished f : collector.finished) {
+            results.add(ReportRecord.from(f.result(), shard.suiteName(), f.status()).withMissingArtifacts(missing));
+        }
+        return results;
+    }
+
+    private static XmlSuite toXmlSuite(Shard shard) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName(shard.suiteName());
+        suite.setListeners(new ArrayList<>(shard.listeners()));
+        ExecutionContext.apply(List.of(suite), shard.executionId());
+        XmlTest test = new XmlTest(suite);
+        test.setName(shard.testName());
+        test.setParameters(shard.parameters());
+        XmlClass xmlClass = new XmlClass(shard.className(), false);
+        List<XmlInclude> includes = new ArrayList<>();
+        for (String method : shard.methods()) {
+            includes.add(new XmlInclude(method));
+        }
+        xmlClass.setIncludedMethods(includes);
+        test.getXmlClasses().add(xmlClass);
+        return suite;
+    }
+
+    private void send(BufferedWriter out, ShardMessage message) throws IOException {
+        out.write(mapper.writeValueAsString(message));
+        out.newLine();
+        out.flush();
+    }
+
+    private record Finished(ITestResult result, String status) { }
+
+    /** Collects finished tests with their status. */
+    private static class ResultCollector implements ITestListener {
+        private final List<Finished> finished = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            finished.add(new Finished(result, "PASSED"));
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            finished.add(new Finished(result, "FAILED"));
+        }
+
+        @Override
+        public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+            finished.add(new Finished(result, "FAILED"));
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            finished.add(new Finished(result, "SKIPPED"));
+        }
+    }
+}
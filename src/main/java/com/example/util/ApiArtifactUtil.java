@@ -1,60 +1,69 @@
 package com.example.util;
 
-import java.io.FileWriter;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 
 public class ApiArtifactUtil {
-    
+    private static final byte[] EMPTY_JSON = "{}".getBytes(StandardCharsets.UTF_8);
+
+    // Rest-Assured is a test-scope dependency, so its Response is looked up reflectively - once per JVM
+    private static final Class<?> RESPONSE_CLASS;
+    private static final Method AS_BYTE_ARRAY;
+    static {
+        Class<?> responseClass = null;
+        Method asByteArray = null;
+        try {
+            responseClass = Class.forName("io.restassured.response.Response");
+            asByteArray = responseClass.getMethod("asByteArray");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Rest-Assured not on the classpath: responses fall back to toString()
+        }
+        RESPONSE_CLASS = responseClass;
+        AS_BYTE_ARRAY = asByteArray;
+    }
+
+    /**
+     * Queue request.json/response.json for the test on ArtifactCapture and return the artifact
+     * directory right away; the files are written by the capture workers.
+     */
     public static String saveRequestResponseArtifacts(String executionId, String testCaseId, String requestBody, Object response) {
         try {
-            String dirPath = "artifacts/" + executionId + "/" + testCaseId + "/";
-            Files.createDirectories(Paths.get(dirPath));
-            
+            ArtifactCapture capture = ArtifactCapture.get();
+
             // Save request.json
             if (requestBody != null && !requestBody.isEmpty()) {
-                try (FileWriter fw = new FileWriter(dirPath + "request.json")) {
-                    fw.write(formatJson(requestBody));
-                }
-                System.out.println("[DEBUG] Saved request.json for " + testCaseId);
+                capture.submit(executionId, testCaseId, "request.json", requestBody.getBytes(StandardCharsets.UTF_8));
             }
-            
+
             // Save response.json
             if (response != null) {
-                String responseBody = null;
-                try {
-                    // Use reflection to avoid compile-time dependency on Rest-Assured
-                    Class<?> responseClass = Class.forName("io.restassured.response.Response");
-                    if (responseClass.isInstance(response)) {
-                        Object body = response.getClass().getMethod("getBody").invoke(response);
-                        responseBody = (String) body.getClass().getMethod("asString").invoke(body);
-                    } else {
-                        responseBody = response.toString();
-                    }
-                } catch (Exception e) {
-                    // Fallback to toString if reflection fails
-                    responseBody = response.toString();
-                }
-                
-                try (FileWriter fw = new FileWriter(dirPath + "response.json")) {
-                    fw.write(formatJson(responseBody));
-                }
-                System.out.println("[DEBUG] Saved response.json for " + testCaseId);
+                capture.submit(executionId, testCaseId, "response.json", formatJson(responseBytes(response)));
             }
-            
-            return dirPath;
+
+            return ArtifactCapture.artifactDir(executionId, testCaseId);
         } catch (Exception e) {
             System.err.println("[ERROR] Failed to save API artifacts: " + e.getMessage());
             e.printStackTrace();
             return null;
         }
     }
-    
-    private static String formatJson(String json) {
-        // Simple JSON formatting - add proper indentation if needed
-        if (json == null || json.isEmpty()) {
-            return "{}";
+
+    private static byte[] responseBytes(Object response) {
+        if (AS_BYTE_ARRAY != null && RESPONSE_CLASS.isInstance(response)) {
+            try {
+                return (byte[]) AS_BYTE_ARRAY.invoke(response);
+            } catch (ReflectiveOperationException e) {
+                // Fallback to toString if reflection fails
+            }
+        }
+        return response.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] formatJson(byte[] json) {
+        // Empty bodies (e.g. 204 No Content) are stored as an empty JSON object
+        if (json == null || json.length == 0) {
+            return EMPTY_JSON;
         }
         return json;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package com.example.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves artifact file I/O off the test threads.
+ * Tests hand over the raw bytes and get the final path back immediately; a small pool of
+ * daemon I/O workers creates the directories and writes the files through FileChannels.
+ * The queue is bounded and submit blocks while it is full, so a burst of failures
+ * slows tests down instead of losing evidence. The reporter calls flush(executionId)
+ * before it links artifacts; flush gives up after a deadline and names the files still
+ * unwritten, so a stuck disk cannot hold a report back.
+ *
+ * System properties: artifacts.capture.queue (default 256), artifacts.capture.workers (default 2),
+ * artifacts.capture.flush-timeout-ms (default 30000).
+ */
+public class ArtifactCapture {
+    private static final ArtifactCapture INSTANCE = new ArtifactCapture(
+            Integer.getInteger("artifacts.capture.queue", 256),
+            Integer.getInteger("artifacts.capture.workers", 2));
+    private static final long FLUSH_TIMEOUT_MS = Long.getLong("artifacts.capture.flush-timeout-ms", 30_000);
+
+    private record Task(String executionId, String filePath, byte[] data) { }
+
+    /** Outcome of a flush: paths written, and paths still queued or being written when it gave up. */
+    public record Flushed(List<String> written, List<String> missing) { }
+
+    private final BlockingQueue<Task> queue;
+    private final Object lock = new Object();
+    // Paths queued per execution and not written yet
+    private final Map<String, List<String>> pending = new HashMap<>();
+    private final Map<String, List<String>> written = new HashMap<>();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    private ArtifactCapture(int capacity, int workers) {
+        queue = new ArrayBlockingQueue<>(capacity);
+        for (int i = 1; i <= workers; i++) {
+            Thread t = new Thread(this::runWorker, "artifact-writer-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushAll, "artifact-writer-shutdown"));
+    }
+
+    public static ArtifactCapture get() {
+        return INSTANCE;
+    }
+
+    /** Directory an execution/test pair writes into, e.g. artifacts/{executionId}/{testCaseId}/ */
+    public static String artifactDir(String executionId, String testCaseId) {
+        return "artifacts/" + executionId + "/" + testCaseId + "/";
+    }
+
+    /**
+     * Queue data for artifacts/{executionId}/{testCaseId}/{fileName} and return that path.
+     * Blocks while the queue is full.
+     */
+    public String submit(String executionId, String testCaseId, String fileName, byte[] data) {
+        String filePath = artifactDir(executionId, testCaseId) + fileName;
+        synchronized (lock) {
+            pending.computeIfAbsent(executionId, k -> new ArrayList<>()).add(filePath);
+        }
+        try {
+            queue.put(new Task(executionId, filePath, data));
+        } catch (InterruptedException e) {
+            done(executionId, filePath, false);
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return filePath;
+    }
+
+    /**
+     * Wait until every artifact queued for the execution is on disk, or the flush timeout passed,
+     * and return the paths written and those still missing. Missing files may still be written later.
+     */
+    public Flushed flush(String executionId) {
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MS;
+        synchronized (lock) {
+            while (pending.containsKey(executionId)) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) break;
+                try {
+                    lock.wait(Math.min(remaining, 1000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            List<String> paths = written.remove(executionId);
+            List<String> missing = List.copyOf(pending.getOrDefault(executionId, List.of()));
+            if (!missing.isEmpty()) {
+                System.out.println("[ERROR] " + missing.size() + " artifacts of " + executionId
+                        + " not written after " + FLUSH_TIMEOUT_MS + " ms, reporting them as missing");
+            }
+            return new Flushed(paths != null ? paths : List.of(), missing);
+        }
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    private void flushAll() {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        synchronized (lock) {
+            while (!pending.isEmpty() && System.currentTimeMillis() < deadline) {
+                try {
+                    lock.wait(200);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void runWorker() {
+        while (true) {
+            Task task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            boolean ok = false;
+            try {
+                write(Paths.get(task.filePath()), task.data());
+                bytesWritten.addAndGet(task.data().length);
+                ok = true;
+            } catch (IOException e) {
+                System.err.println("[ERROR] Failed to write artifact " + task.filePath() + ": " + e.getMessage());
+            } finally {
+                done(task.executionId(), task.filePath(), ok);
+            }
+        }
+    }
+
+    private static void write(Path path, byte[] data) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private void done(String executionId, String filePath, boolean ok) {
+        synchronized (lock) {
+            if (ok) {
+                written.computeIfAbsent(executionId, k -> new ArrayList<>()).add(filePath);
+            }
+            List<String> queued = pending.get(executionId);
+            if (queued != null) {
+                queued.remove(filePath);
+                if (queued.isEmpty()) pending.remove(executionId);
+            }
+            lock.notifyAll();
+        }
+    }
+}
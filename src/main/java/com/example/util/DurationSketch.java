@@ -0,0 +1,81 @@
+package com.example.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Streaming duration histogram with logarithmic buckets (HDR/DDSketch style).
+ * Bucket i holds durations in (GAMMA^(i-1), GAMMA^i] ms, so any quantile is answered within
+ * 1% relative error from at most a few hundred buckets, however many values were added.
+ * Sketches merge by adding bucket counts and persist as a short "zeros|index:count,..." string.
+ */
+public class DurationSketch {
+    private static final double GAMMA = 1.02;
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeros;
+    private long count;
+
+    public void add(long durationMs) {
+        if (durationMs <= 0) {
+            zeros++;
+        } else {
+            buckets.merge((int) Math.ceil(Math.log(durationMs) / LOG_GAMMA), 1L, Long::sum);
+        }
+        count++;
+    }
+
+    public void merge(DurationSketch other) {
+        zeros += other.zeros;
+        count += other.count;
+        other.buckets.forEach((index, n) -> buckets.merge(index, n, Long::sum));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /** Duration (ms) at quantile q (0..1), or null when nothing was added. */
+    public Long quantile(double q) {
+        if (count == 0) return null;
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        if (rank <= zeros) return 0L;
+        long seen = zeros;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen >= rank) {
+                // Middle of the bucket keeps the estimate within half a bucket of the true value
+                return Math.round(2 * Math.pow(GAMMA, bucket.getKey()) / (GAMMA + 1));
+            }
+        }
+        return Math.round(2 * Math.pow(GAMMA, buckets.lastKey()) / (GAMMA + 1));
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder().append(zeros).append('|');
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            if (sb.charAt(sb.length() - 1) != '|') sb.append(',');
+            sb.append(bucket.getKey()).append(':').append(bucket.getValue());
+        }
+        return sb.toString();
+    }
+
+    /** Reads an encode()d sketch; null or blank gives an empty one. */
+    public static DurationSketch decode(String encoded) {
+        DurationSketch sketch = new DurationSketch();
+        if (encoded == null || encoded.isBlank()) return sketch;
+        String[] parts = encoded.split("\\|", 2);
+        sketch.zeros = Long.parseLong(parts[0]);
+        sketch.count = sketch.zeros;
+        if (parts.length > 1 && !parts[1].isEmpty()) {
+            for (String entry : parts[1].split(",")) {
+                String[] pair = entry.split(":", 2);
+                long n = Long.parseLong(pair[1]);
+                sketch.buckets.put(Integer.parseInt(pair[0]), n);
+                sketch.count += n;
+            }
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.util;
+
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carries the executionId through a TestNG run as a suite parameter, so concurrent
+ * executions in one JVM each see their own id in listeners, reporters and @AfterMethod hooks.
+ * Standalone runs (mvn test) have no parameter and fall back to -DexecutionId, then "manual".
+ */
+public final class ExecutionContext {
+    public static final String PARAMETER = "executionId";
+    private static final String DEFAULT = "manual";
+
+    private ExecutionContext() { }
+
+    /** Stamps executionId on the suites (and their child suites) before they are handed to TestNG. */
+    public static void apply(List<XmlSuite> xmlSuites, String executionId) {
+        for (XmlSuite xmlSuite : xmlSuites) {
+            Map<String, String> parameters = new LinkedHashMap<>(xmlSuite.getParameters());
+            parameters.put(PARAMETER, executionId);
+            xmlSuite.setParameters(parameters);
+            apply(xmlSuite.getChildSuites(), executionId);
+        }
+    }
+
+    public static String of(ITestResult result) {
+        return of(result.getTestContext());
+    }
+
+    public static String of(ITestContext context) {
+        return orDefault(context.getCurrentXmlTest().getParameter(PARAMETER));
+    }
+
+    public static String of(ISuite suite) {
+        return orDefault(suite.getXmlSuite().getParameter(PARAMETER));
+    }
+
+    /** The execution of a TestNG run's suites; one run never mixes executions, so the first suite names it. */
+    public static String of(List<ISuite> suites) {
+        return suites.isEmpty() ? orDefault(null) : of(suites.get(0));
+    }
+
+    private static String orDefault(String executionId) {
+        return executionId != null ? executionId : System.getProperty(PARAMETER, DEFAULT);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class NdjsonUtil {
+
+    /** Writes each row of the stream as one JSON line; returns the number of rows written. */
+    public static <T> long writeAll(Stream<T> rows, OutputStream out, ObjectMapper mapper) throws IOException {
+        return writeAll(rows, out, mapper, row -> { });
+    }
+
+    /**
+     * Writes each row of the stream as one JSON line, calling afterWrite once a row is out
+     * (e.g. to detach it from the persistence context). Returns the number of rows written.
+     */
+    public static <T> long writeAll(Stream<T> rows, OutputStream out, ObjectMapper mapper, Consumer<T> afterWrite) throws IOException {
+        ObjectWriter writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        long count = 0;
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            T row = it.next();
+            writer.writeValue(buffered, row);
+            buffered.write('\n');
+            afterWrite.accept(row);
+            count++;
+        }
+        buffered.flush();
+        return count;
+    }
+}
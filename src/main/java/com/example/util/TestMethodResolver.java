@@ -0,0 +1,107 @@
+package com.example.util;
+
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the test methods a parsed XmlSuite will run, without running TestNG.
+ * Honours &lt;include&gt;/&lt;exclude&gt; method lists and @Test(enabled = false);
+ * group filtering is not evaluated.
+ * Results are memoized per class and include/exclude lists; test classes don't change
+ * while the JVM runs, so entries never go stale.
+ */
+public final class TestMethodResolver {
+    private static final Map<String, List<String>> METHODS = new ConcurrentHashMap<>();
+    private static final Map<String, Boolean> DEPENDENCIES = new ConcurrentHashMap<>();
+
+    private TestMethodResolver() { }
+
+    /** One test method as declared in a suite: the &lt;test&gt; it belongs to, its class and name. */
+    public record TestMethod(XmlTest test, String className, String methodName) { }
+
+    public static List<TestMethod> resolve(XmlSuite suite) {
+        List<TestMethod> methods = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                for (String name : testMethods(xmlClass)) {
+                    methods.add(new TestMethod(test, xmlClass.getName(), name));
+                }
+            }
+        }
+        return methods;
+    }
+
+    /** Test method names of one &lt;class&gt; entry, ordered by priority then name. */
+    public static List<String> testMethods(XmlClass xmlClass) {
+        Set<String> included = new HashSet<>();
+        for (XmlInclude include : xmlClass.getIncludedMethods()) {
+            included.add(include.getName());
+        }
+        Set<String> excluded = new HashSet<>(xmlClass.getExcludedMethods());
+        String key = xmlClass.getName() + "|" + new TreeSet<>(included) + "|" + new TreeSet<>(excluded);
+        return METHODS.computeIfAbsent(key, k -> List.copyOf(testMethods(load(xmlClass.getName()), included, excluded)));
+    }
+
+    private static List<String> testMethods(Class<?> cls, Set<String> included, Set<String> excluded) {
+        boolean classLevelTest = cls.isAnnotationPresent(Test.class);
+
+        List<Method> candidates = new ArrayList<>();
+        for (Method m : cls.getMethods()) {
+            if (m.getDeclaringClass() == Object.class || Modifier.isStatic(m.getModifiers())) continue;
+            Test t = m.getAnnotation(Test.class);
+            if (t == null && !classLevelTest) continue;
+            if (t != null && !t.enabled()) continue;
+            if (!included.isEmpty() && !included.contains(m.getName())) continue;
+            if (excluded.contains(m.getName())) continue;
+            candidates.add(m);
+        }
+        candidates.sort(Comparator.comparingInt(TestMethodResolver::priority).thenComparing(Method::getName));
+        List<String> names = new ArrayList<>(candidates.size());
+        for (Method m : candidates) {
+            if (!names.contains(m.getName())) names.add(m.getName());
+        }
+        return names;
+    }
+
+    /** True if any test method depends on other methods or groups, so the class must run as a unit. */
+    public static boolean hasDependencies(String className) {
+        return DEPENDENCIES.computeIfAbsent(className, TestMethodResolver::declaresDependencies);
+    }
+
+    private static boolean declaresDependencies(String className) {
+        for (Method m : load(className).getMethods()) {
+            Test t = m.getAnnotation(Test.class);
+            if (t != null && (t.dependsOnMethods().length > 0 || t.dependsOnGroups().length > 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int priority(Method m) {
+        Test t = m.getAnnotation(Test.class);
+        return t != null ? t.priority() : 0;
+    }
+
+    private static Class<?> load(String className) {
+        try {
+            return Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Test class not on classpath: " + className, e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories backed by virtual threads when running on Java 21+.
+ * The project still compiles for Java 17, so Thread.ofVirtual() is looked up reflectively;
+ * on older runtimes the factory hands out daemon platform threads instead.
+ */
+public final class VirtualThreads {
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_FACTORY = factory;
+    }
+
+    private VirtualThreads() { }
+
+    public static boolean available() {
+        return OF_VIRTUAL != null;
+    }
+
+    /** Threads named prefix0, prefix1, ...; virtual if the runtime supports them. */
+    public static ThreadFactory factory(String prefix) {
+        if (OF_VIRTUAL != null) {
+            try {
+                Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+                return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("[ERROR] Virtual threads unavailable, using platform threads: " + e.getMessage());
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + count.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide counts of WebDriver sessions, updated by the UI test pool and
+ * read by the metrics gauges. Static because the pool lives in test code and is
+ * not a Spring bean.
+ */
+public final class WebDriverSessions {
+    private static final AtomicInteger LIVE = new AtomicInteger();
+    private static final AtomicInteger IN_USE = new AtomicInteger();
+
+    private WebDriverSessions() { }
+
+    public static void opened() {
+        LIVE.incrementAndGet();
+    }
+
+    public static void closed() {
+        LIVE.decrementAndGet();
+    }
+
+    public static void checkedOut() {
+        IN_USE.incrementAndGet();
+    }
+
+    public static void checkedIn() {
+        IN_USE.decrementAndGet();
+    }
+
+    public static int live() {
+        return LIVE.get();
+    }
+
+    public static int inUse() {
+        return IN_USE.get();
+    }
+}
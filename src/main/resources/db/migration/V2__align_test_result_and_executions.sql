@@ -0,0 +1,84 @@
+-- Align test_result with the TestResult entity, model executions explicitly and index the hot query paths.
+-- Databases created earlier by ddl-auto=update may already have some of these columns,
+-- so columns and indexes are added through idempotent helper procedures.
+
+DROP PROCEDURE IF EXISTS add_column_if_missing;
+DROP PROCEDURE IF EXISTS add_index_if_missing;
+
+DELIMITER //
+CREATE PROCEDURE add_column_if_missing(IN tbl VARCHAR(64), IN col VARCHAR(64), IN def VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = tbl AND COLUMN_NAME = col) THEN
+        SET @ddl = CONCAT('ALTER TABLE ', tbl, ' ADD COLUMN ', col, ' ', def);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+
+CREATE PROCEDURE add_index_if_missing(IN tbl VARCHAR(64), IN idx VARCHAR(64), IN cols VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = tbl AND INDEX_NAME = idx) THEN
+        SET @ddl = CONCAT('CREATE INDEX ', idx, ' ON ', tbl, ' (', cols, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+DELIMITER ;
+
+-- test_result columns mapped by TestResult
+CALL add_column_if_missing('test_result', 'execution_id', 'VARCHAR(64)');
+CALL add_column_if_missing('test_result', 'test_name', 'VARCHAR(255)');
+CALL add_column_if_missing('test_result', 'suite_name', 'VARCHAR(255)');
+CALL add_column_if_missing('test_result', 'start_time', 'DATETIME(6)');
+CALL add_column_if_missing('test_result', 'end_time', 'DATETIME(6)');
+CALL add_column_if_missing('test_result', 'duration_ms', 'BIGINT');
+CALL add_column_if_missing('test_result', 'artifact_link', 'VARCHAR(1024)');
+CALL add_column_if_missing('test_result', 'error_message', 'TEXT');
+ALTER TABLE test_result MODIFY COLUMN error_message TEXT;
+
+-- Hot query paths: per execution, suite history, per-test history, status filters
+CALL add_index_if_missing('test_result', 'idx_test_result_execution', 'execution_id');
+CALL add_index_if_missing('test_result', 'idx_test_result_suite_start', 'suite_name, start_time');
+CALL add_index_if_missing('test_result', 'idx_test_result_name_start', 'test_name, start_time');
+CALL add_index_if_missing('test_result', 'idx_test_result_status_start', 'status, start_time');
+CALL add_index_if_missing('test_result', 'idx_test_result_start', 'start_time');
+
+-- Table-backed sequence for TestResult ids (MySQL has no sequences); lets Hibernate batch inserts.
+-- The pooled optimizer (allocationSize 50) reads any value but the initial one as the top of a
+-- block and hands out ids from value - 49, so existing rows need MAX(id) + 50; empty tables start at 1
+CREATE TABLE IF NOT EXISTS test_result_seq (
+    next_val BIGINT
+);
+INSERT INTO test_result_seq (next_val)
+SELECT CASE WHEN MAX(id) IS NULL THEN 1 ELSE MAX(id) + 50 END FROM test_result
+WHERE NOT EXISTS (SELECT 1 FROM test_result_seq);
+
+-- One row per execution; test_result.execution_id refers to test_execution.execution_id
+CREATE TABLE IF NOT EXISTS test_execution (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    execution_id VARCHAR(64) NOT NULL,
+    suite VARCHAR(255),
+    status VARCHAR(20) NOT NULL,
+    queued_at DATETIME(6),
+    started_at DATETIME(6),
+    finished_at DATETIME(6),
+    total INT NOT NULL DEFAULT 0,
+    passed INT NOT NULL DEFAULT 0,
+    failed INT NOT NULL DEFAULT 0,
+    skipped INT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_test_execution_execution_id UNIQUE (execution_id)
+);
+CALL add_index_if_missing('test_execution', 'idx_test_execution_suite_queued', 'suite, queued_at');
+CALL add_index_if_missing('test_execution', 'idx_test_execution_status', 'status');
+
+-- Old rows are moved here by ResultArchiveService. Native RANGE partitioning is not an option
+-- while test_result has a foreign key and a primary key without start_time.
+-- Same column layout as test_result: add future columns to both tables.
+CREATE TABLE IF NOT EXISTS test_result_archive LIKE test_result; -- copies the columns and indexes above, not the FK
+
+DROP PROCEDURE IF EXISTS add_column_if_missing;
+DROP PROCEDURE IF EXISTS add_index_if_missing;
@@ -0,0 +1,3 @@
+-- Reruns of failed/skipped tests are executions of their own that point back at the original run.
+ALTER TABLE test_execution ADD COLUMN rerun_of VARCHAR(64) NULL;
+CREATE INDEX idx_test_execution_rerun_of ON test_execution (rerun_of);
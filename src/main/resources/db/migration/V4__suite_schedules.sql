@@ -0,0 +1,19 @@
+-- Persisted suite schedules: recurring (cron_expression) or one-off (cron_expression NULL, disabled after firing).
+-- next_run_at is the next due time; the dispatcher polls enabled rows that are due.
+CREATE TABLE IF NOT EXISTS suite_schedule (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    suite VARCHAR(255) NOT NULL,
+    cron_expression VARCHAR(120) NULL,
+    max_parallel_tests INT NOT NULL DEFAULT 0,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    next_run_at DATETIME(6) NULL,
+    last_run_at DATETIME(6) NULL,
+    last_execution_id VARCHAR(64) NULL,
+    created_at DATETIME(6) NOT NULL,
+    CONSTRAINT uk_suite_schedule_name UNIQUE (name)
+);
+CREATE INDEX idx_suite_schedule_due ON suite_schedule (enabled, next_run_at);
+
+-- Dispatch class of each execution (INTERACTIVE or SCHEDULED)
+ALTER TABLE test_execution ADD COLUMN priority VARCHAR(20) NULL;
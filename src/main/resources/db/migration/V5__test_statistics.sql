@@ -0,0 +1,25 @@
+-- Per-test running statistics, updated with every batch of results written (see TestStatisticsService).
+-- duration_sketch is a serialized log-bucket histogram of durations; p50/p95 are refreshed from it.
+CREATE TABLE IF NOT EXISTS test_statistics (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    suite_name VARCHAR(255) NOT NULL,
+    test_name VARCHAR(255) NOT NULL,
+    runs BIGINT NOT NULL DEFAULT 0,
+    passed BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    skipped BIGINT NOT NULL DEFAULT 0,
+    flips BIGINT NOT NULL DEFAULT 0,
+    last_outcome VARCHAR(20) NULL,
+    pass_rate DOUBLE NOT NULL DEFAULT 0,
+    recent_pass_rate DOUBLE NOT NULL DEFAULT 0,
+    flakiness DOUBLE NOT NULL DEFAULT 0,
+    p50_duration_ms BIGINT NULL,
+    p95_duration_ms BIGINT NULL,
+    max_duration_ms BIGINT NULL,
+    duration_sketch TEXT NULL,
+    last_run_at DATETIME(6) NULL,
+    updated_at DATETIME(6) NOT NULL,
+    CONSTRAINT uk_test_statistics_suite_test UNIQUE (suite_name, test_name)
+);
+CREATE INDEX idx_test_statistics_flakiness ON test_statistics (flakiness);
+CREATE INDEX idx_test_statistics_p95 ON test_statistics (p95_duration_ms);
@@ -0,0 +1,40 @@
+-- Suite trends per hour and per day, aggregated incrementally from test_result/test_result_archive
+-- (see TrendRollupService). Counters are additive, so each batch of new rows is merged in with
+-- INSERT ... ON DUPLICATE KEY UPDATE.
+CREATE TABLE IF NOT EXISTS result_rollup_hourly (
+    suite_name VARCHAR(255) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    tests BIGINT NOT NULL DEFAULT 0,
+    passed BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    skipped BIGINT NOT NULL DEFAULT 0,
+    total_duration_ms BIGINT NOT NULL DEFAULT 0,
+    max_duration_ms BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (suite_name, bucket_start)
+);
+CREATE INDEX idx_result_rollup_hourly_bucket ON result_rollup_hourly (bucket_start);
+
+CREATE TABLE IF NOT EXISTS result_rollup_daily (
+    suite_name VARCHAR(255) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    tests BIGINT NOT NULL DEFAULT 0,
+    passed BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    skipped BIGINT NOT NULL DEFAULT 0,
+    total_duration_ms BIGINT NOT NULL DEFAULT 0,
+    max_duration_ms BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (suite_name, bucket_start)
+);
+CREATE INDEX idx_result_rollup_daily_bucket ON result_rollup_daily (bucket_start);
+
+-- Aggregation progress: rows with id <= last_id are in the rollups; observed_max_id is the highest
+-- id seen by the previous pass, the bound of the next one (lets late commits of lower ids land first)
+CREATE TABLE IF NOT EXISTS rollup_watermark (
+    name VARCHAR(64) PRIMARY KEY,
+    last_id BIGINT NOT NULL,
+    observed_max_id BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL
+);
+INSERT INTO rollup_watermark (name, last_id, observed_max_id, updated_at)
+SELECT 'test_result', 0, 0, NOW(6) FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM rollup_watermark WHERE name = 'test_result');
@@ -0,0 +1,7 @@
+-- A test is identified by its class, method and data-provider invocation, not the method name alone.
+-- Rows written before this have no class name and parameter index 0.
+-- test_result_archive keeps the same column layout, archiving copies rows with SELECT *.
+ALTER TABLE test_result ADD COLUMN class_name VARCHAR(255) NULL;
+ALTER TABLE test_result ADD COLUMN parameter_index INT NOT NULL DEFAULT 0;
+ALTER TABLE test_result_archive ADD COLUMN class_name VARCHAR(255) NULL;
+ALTER TABLE test_result_archive ADD COLUMN parameter_index INT NOT NULL DEFAULT 0;
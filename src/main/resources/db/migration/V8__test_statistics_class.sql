@@ -0,0 +1,5 @@
+-- Statistics per class and method, so same-named methods of different classes keep their own rows.
+-- Rows folded before test_result had class names keep class_name ''.
+ALTER TABLE test_statistics ADD COLUMN class_name VARCHAR(255) NOT NULL DEFAULT '' AFTER suite_name;
+ALTER TABLE test_statistics DROP INDEX uk_test_statistics_suite_test;
+ALTER TABLE test_statistics ADD CONSTRAINT uk_test_statistics_suite_class_test UNIQUE (suite_name, class_name, test_name);
@@ -0,0 +1,111 @@
+package com.example.api;
+
+import com.example.replay.RecordReplayServer;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * ApiClient
+ * Suite-scoped HTTP layer for the API tests: one keep-alive connection pool shared by all
+ * test threads, sized to the threads that actually run tests at once (the widest parallel
+ * &lt;test&gt; thread-count, not the suite-level one), plus shared RequestSpecifications for the
+ * base URL and auth header so each test only adds what is specific to it.
+ *
+ * System properties: http.pool.maxPerRoute (default: parallelism(suite)),
+ * http.pool.maxTotal (default: 2 x maxPerRoute).
+ */
+@SuppressWarnings("deprecation") // Rest-Assured 5 still requires an HttpClient 4 AbstractHttpClient
+public final class ApiClient {
+    /** reqres.in, or the local record/replay stand-in when -Dtarget.mode=record|replay */
+    public static final String BASE_URL = RecordReplayServer.resolve("reqres", "https://reqres.in/api");
+    private static final String API_KEY = "reqres-free-v1";
+
+    private static volatile ApiClient instance;
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final DefaultHttpClient httpClient;
+    private final RequestSpecification spec;
+    private final RequestSpecification jsonSpec;
+
+    private ApiClient(int threadCount) {
+        connectionManager = new PoolingClientConnectionManager();
+        resize(threadCount);
+        httpClient = new DefaultHttpClient(connectionManager);
+        RestAssuredConfig config = RestAssured.config().httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> httpClient));
+        spec = new RequestSpecBuilder()
+                .setConfig(config)
+                .setBaseUri(BASE_URL)
+                .addHeader("x-api-key", API_KEY)
+                .build();
+        jsonSpec = new RequestSpecBuilder()
+                .addRequestSpecification(spec)
+                .setContentType(ContentType.JSON)
+                .build();
+    }
+
+    /**
+     * Threads that can run the suite's test methods at once: the widest thread-count of a
+     * parallel &lt;test&gt; (laned and capped runs rewrite these), 1 when no test runs in parallel.
+     */
+    public static int parallelism(XmlSuite suite) {
+        int threads = 1;
+        for (XmlTest test : suite.getTests()) {
+            if (test.getParallel() != null && test.getParallel().isParallel()) {
+                threads = Math.max(threads, test.getThreadCount());
+            }
+        }
+        return threads;
+    }
+
+    /** Called from @BeforeSuite with parallelism(suite); later suites in the same JVM can only grow the pool. */
+    public static synchronized ApiClient init(int threadCount) {
+        if (instance == null) {
+            instance = new ApiClient(threadCount);
+        } else if (threadCount > instance.connectionManager.getDefaultMaxPerRoute()) {
+            instance.resize(threadCount);
+        }
+        return instance;
+    }
+
+    public static ApiClient get() {
+        ApiClient client = instance;
+        return client != null ? client : init(1);
+    }
+
+    private void resize(int threadCount) {
+        int perRoute = Integer.getInteger("http.pool.maxPerRoute", Math.max(1, threadCount));
+        connectionManager.setDefaultMaxPerRoute(perRoute);
+        connectionManager.setMaxTotal(Integer.getInteger("http.pool.maxTotal", perRoute * 2));
+    }
+
+    /** New request pre-configured with the pooled client, base URL and auth header. */
+    public RequestSpecification request() {
+        return RestAssured.given().spec(spec);
+    }
+
+    /** Same as request() with a JSON content type. */
+    public RequestSpecification jsonRequest() {
+        return RestAssured.given().spec(jsonSpec);
+    }
+
+    /** One-line pool summary for the run report. */
+    public String describeStats() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return "leased=" + stats.getLeased()
+                + ", available=" + stats.getAvailable()
+                + ", pending=" + stats.getPending()
+                + ", max=" + stats.getMax()
+                + ", maxPerRoute=" + connectionManager.getDefaultMaxPerRoute();
+    }
+}
@@ -4,19 +4,20 @@ import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.AfterMethod;
+import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.example.service.TestResultService;
+import com.example.replay.RecordReplayServer;
 import com.example.util.ApiArtifactUtil;
+import com.example.util.ExecutionContext;
 import java.io.FileWriter;
 import java.io.IOException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.testng.Assert;
 import org.testng.annotations.Test;
-import java.util.UUID;
 
 /**
  * ReqResAPITest
@@ -27,13 +28,18 @@ public class ReqResAPITest {
 	@Autowired
 	private TestResultService testResultService;
 	@BeforeSuite
-	public void beforeSuite() {
+	public void beforeSuite(ITestContext context) {
 		logger.info("[Suite] Starting ReqRes API Test Suite");
+		int threadCount = ApiClient.parallelism(context.getSuite().getXmlSuite());
+		ApiClient.init(threadCount);
+		logger.info("[Suite] HTTP pool sized for {} threads", threadCount);
 	}
 
 	@AfterSuite
-	public void afterSuite() {
-		logger.info("[Suite] Completed ReqRes API Test Suite");
+	public void afterSuite(ITestContext context) {
+		String stats = ApiClient.get().describeStats();
+		context.getSuite().setAttribute("report.summary.HTTP connection pool", stats);
+		logger.info("[Suite] Completed ReqRes API Test Suite (HTTP pool: {})", stats);
 	}
 
 	@BeforeMethod
@@ -45,7 +51,7 @@ public class ReqResAPITest {
 	@AfterMethod
 	public void afterMethod(ITestResult result) {
 		logger.info("[Test] Finished test method");
-		String executionId = System.getProperty("executionId", "manual");
+		String executionId = ExecutionContext.of(result);
 		String testCaseId = result.getMethod().getMethodName();
 		
 		// Get Response and request body from test method (if available)
@@ -70,14 +76,12 @@ public class ReqResAPITest {
 		}
 	}
 	private static final Logger logger = LogManager.getLogger(ReqResAPITest.class);
-	private final String BASE_URL = "https://reqres.in/api";
 
 	/** TC-API-01: US-401 TC-401.1 Get list of users (page 2) */
 	@Test(description = "Get list of users from page 2", timeOut = 30000) // TestNG per-test timeout: 30s
 	public void testGetListOfUsers_TC_API_01() {
-		Response response = RestAssured.given()
-			.header("x-api-key", "reqres-free-v1")
-			.get(BASE_URL + "/users?page=2");
+		Response response = ApiClient.get().request()
+			.get("/users?page=2");
 		// Save response for artifact
 		org.testng.Reporter.getCurrentTestResult().setAttribute("response", response);
 		logger.info("[US-401][TC-401.1][Thread {}] Get list of users response: {}", Thread.currentThread().getId(), response.getBody().asString());
@@ -88,9 +92,8 @@ public class ReqResAPITest {
 	/** TC-API-02: US-401 TC-401.2 Get single user (id=2) */
 	@Test(description = "Get single user with valid ID", timeOut = 30000)
 	public void testGetSingleUserValid_TC_API_02() {
-		Response response = RestAssured.given()
-			.header("x-api-key", "reqres-free-v1")
-			.get(BASE_URL + "/users/2");
+		Response response = ApiClient.get().request()
+			.get("/users/2");
 		org.testng.Reporter.getCurrentTestResult().setAttribute("response", response);
 		logger.info("[US-401][TC-401.2][Thread {}] Get single user (id=2) response: {}", Thread.currentThread().getId(), response.getBody().asString());
 		Assert.assertEquals(response.getStatusCode(), 200);
@@ -100,9 +103,8 @@ public class ReqResAPITest {
 	/** TC-API-03: US-401 TC-401.3 Get single user (id=23, not found) */
 	@Test(description = "Get single user with invalid ID (not found)", timeOut = 30000)
 	public void testGetSingleUserNotFound_TC_API_03() {
-		Response response = RestAssured.given()
-			.header("x-api-key", "reqres-free-v1")
-			.get(BASE_URL + "/users/23");
+		Response response = ApiClient.get().request()
+			.get("/users/23");
 		org.testng.Reporter.getCurrentTestResult().setAttribute("response", response);
 		logger.info("[US-401][TC-401.3][Thread {}] Get single user (id=23) response: {}", Thread.currentThread().getId(), response.getBody().asString());
 		Assert.assertEquals(response.getStatusCode(), 404);
@@ -111,13 +113,11 @@ public class ReqResAPITest {
 	/** TC-API-04: US-402 TC-402.1 Create user */
 	@Test(description = "Create new user with POST request", timeOut = 30000)
 	public void testCreateUser_TC_API_04() {
-		String uniqueName = "user_" + UUID.randomUUID();
+		String uniqueName = "user_" + RecordReplayServer.uniqueId();
 		String body = "{\"name\":\"" + uniqueName + "\",\"job\":\"leader\"}";
-		Response response = RestAssured.given()
-			.header("Content-Type", "application/json")
-			.header("x-api-key", "reqres-free-v1")
+		Response response = ApiClient.get().jsonRequest()
 			.body(body)
-			.post(BASE_URL + "/users");
+			.post("/users");
 		org.testng.Reporter.getCurrentTestResult().setAttribute("response", response);
 		org.testng.Reporter.getCurrentTestResult().setAttribute("requestBody", body);
 		logger.info("[US-402][TC-402.1][Thread {}] Create user response: {}", Thread.currentThread().getId(), response.getBody().asString());
@@ -128,13 +128,11 @@ public class ReqResAPITest {
 	/** TC-API-05: US-402 TC-402.2 Update user (PUT) */
 	@Test(description = "Update user details with PUT request", timeOut = 30000)
 	public void testUpdateUserPut_TC_API_05() {
-		String uniqueName = "user_" + UUID.randomUUID();
+		String uniqueName = "user_" + RecordReplayServer.uniqueId();
 		String body = "{\"name\":\"" + uniqueName + "\",\"job\":\"manager\"}";
-		Response response = RestAssured.given()
-			.header("Content-Type", "application/json")
-			.header("x-api-key", "reqres-free-v1")
+		Response response = ApiClient.get().jsonRequest()
 			.body(body)
-			.put(BASE_URL + "/users/2");
+			.put("/users/2");
 		org.testng.Reporter.getCurrentTestResult().setAttribute("response", response);
 		org.testng.Reporter.getCurrentTestResult().setAttribute("requestBody", body);
 		logger.info("[US-402][TC-402.2][Thread {}] Update user (PUT) response: {}", Thread.currentThread().getId(), response.getBody().asString());
@@ -145,13 +143,11 @@ public class ReqResAPITest {
 	/** TC-API-06: US-402 TC-402.3 Patch user */
 	@Test(description = "Partially update user with PATCH request", timeOut = 30000)
 	public void testPatchUser_TC_API_06() {
-		String uniqueJob = "job_" + UUID.randomUUID();
+		String uniqueJob = "job_" + RecordReplayServer.uniqueId();
 		String body = "{\"job\":\"" + uniqueJob + "\"}";
-		Response response = RestAssured.given()
-			.header("Content-Type", "application/json")
-			.header("x-api-key", "reqres-free-v1")
+		Response response = ApiClient.get().jsonRequest()
 			.body(body)
-			.patch(BASE_URL + "/users/2");
+			.patch("/users/2");
 		org.testng.Reporter.getCurrentTestResult().setAttribute("response", response);
 		org.testng.Reporter.getCurrentTestResult().setAttribute("requestBody", body);
 		logger.info("[US-402][TC-402.3][Thread {}] Patch user response: {}", Thread.currentThread().getId(), response.getBody().asString());
@@ -162,9 +158,8 @@ public class ReqResAPITest {
 	/** TC-API-07: US-402 TC-402.4 Delete user */
 	@Test(description = "Delete user with DELETE request", timeOut = 30000)
 	public void testDeleteUser_TC_API_07() {
-		Response response = RestAssured.given()
-			.header("x-api-key", "reqres-free-v1")
-			.delete(BASE_URL + "/users/2");
+		Response response = ApiClient.get().request()
+			.delete("/users/2");
 		org.testng.Reporter.getCurrentTestResult().setAttribute("response", response);
 		logger.info("[US-402][TC-402.4][Thread {}] Delete user response: {}", Thread.currentThread().getId(), response.getBody().asString());
 		Assert.assertEquals(response.getStatusCode(), 204);
@@ -174,11 +169,9 @@ public class ReqResAPITest {
 	@Test(description = "Register user with valid credentials", timeOut = 30000)
 	public void testRegisterValid_TC_API_08() {
 		String body = "{\"email\":\"eve.holt@reqres.in\",\"password\":\"pistol\"}";
-		Response response = RestAssured.given()
-			.header("Content-Type", "application/json")
-			.header("x-api-key", "reqres-free-v1")
+		Response response = ApiClient.get().jsonRequest()
 			.body(body)
-			.post(BASE_URL + "/register");
+			.post("/register");
 		org.testng.Reporter.getCurrentTestResult().setAttribute("response", response);
 		org.testng.Reporter.getCurrentTestResult().setAttribute("requestBody", body);
 		int status = response.getStatusCode();
@@ -192,11 +185,9 @@ public class ReqResAPITest {
 	@Test(description = "Register user with missing password (negative test)", timeOut = 30000)
 	public void testRegisterMissingPassword_TC_API_09() {
 		String body = "{\"email\":\"eve.holt@reqres.in\"}";
-		Response response = RestAssured.given()
-			.header("Content-Type", "application/json")
-			.header("x-api-key", "reqres-free-v1")
+		Response response = ApiClient.get().jsonRequest()
 			.body(body)
-			.post(BASE_URL + "/register");
+			.post("/register");
 		org.testng.Reporter.getCurrentTestResult().setAttribute("response", response);
 		org.testng.Reporter.getCurrentTestResult().setAttribute("requestBody", body);
 		logger.info("[US-403][TC-403.2][Thread {}] Register (missing password) response: {}", Thread.currentThread().getId(), response.getBody().asString());
@@ -208,11 +199,9 @@ public class ReqResAPITest {
 	@Test(description = "Login user with valid credentials", timeOut = 30000)
 	public void testLoginValid_TC_API_10() {
 		String body = "{\"email\":\"eve.holt@reqres.in\",\"password\":\"cityslicka\"}";
-		Response response = RestAssured.given()
-			.header("Content-Type", "application/json")
-			.header("x-api-key", "reqres-free-v1")
+		Response response = ApiClient.get().jsonRequest()
 			.body(body)
-			.post(BASE_URL + "/login");
+			.post("/login");
 		org.testng.Reporter.getCurrentTestResult().setAttribute("response", response);
 		org.testng.Reporter.getCurrentTestResult().setAttribute("requestBody", body);
 		int status = response.getStatusCode();
@@ -0,0 +1,243 @@
+package com.example.replay;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RecordReplayServer
+ * Local stand-in for the external targets (reqres.in, blazedemo.com) so suites can run
+ * without the internet and the execution engine can be benchmarked deterministically.
+ *
+ * -Dtarget.mode=live    (default) tests talk to the real sites
+ * -Dtarget.mode=record  requests go through a local proxy that stores every response
+ * -Dtarget.mode=replay  stored responses are served locally, after replay.latency.ms
+ *                       (+ up to replay.latency.jitter.ms) of injected delay
+ *
+ * Recordings live in replay.dir (default src/test/resources/replay)/{target}/, one .meta and
+ * one .body file per request, keyed by method, path+query and request body.
+ */
+public final class RecordReplayServer {
+    private static final Logger logger = LogManager.getLogger(RecordReplayServer.class);
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "host", "connection", "content-length", "transfer-encoding", "accept-encoding",
+            "content-encoding", "keep-alive", "upgrade", "te", "trailer", "proxy-connection", "expect");
+    private static final Map<String, RecordReplayServer> SERVERS = new ConcurrentHashMap<>();
+
+    private final String target;
+    private final String upstreamOrigin;
+    private final Path storeDir;
+    private final boolean recordMode;
+    private final HttpServer server;
+    private final HttpClient upstream;
+    private final Map<String, Recording> cache = new ConcurrentHashMap<>();
+    private final long latencyMs = Long.getLong("replay.latency.ms", 0);
+    private final long jitterMs = Long.getLong("replay.latency.jitter.ms", 0);
+
+    private record Recording(int status, List<String[]> headers, byte[] body) { }
+
+    private RecordReplayServer(String target, String upstreamOrigin, boolean recording) throws IOException {
+        this.target = target;
+        this.upstreamOrigin = upstreamOrigin;
+        this.recordMode = recording;
+        this.storeDir = Paths.get(System.getProperty("replay.dir", "src/test/resources/replay"), target);
+        this.upstream = recording ? HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build() : null;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        // Cached pool: injected latency sleeps must not serialize concurrent test threads
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "replay-" + target);
+            t.setDaemon(true);
+            return t;
+        }));
+        // The dispatcher thread inherits daemon status from the thread that starts it;
+        // start it from a daemon so an idle stand-in never keeps the test JVM alive
+        Thread starter = new Thread(server::start, "replay-start-" + target);
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("[Replay] {} {} on port {} (store {})", recording ? "Recording" : "Replaying",
+                target, server.getAddress().getPort(), storeDir.toAbsolutePath());
+    }
+
+    public static String mode() {
+        return System.getProperty("target.mode", "live").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Base URL the tests should use for a target: the upstream URL itself in live mode,
+     * otherwise the same path on a local record/replay server started on first use.
+     */
+    public static String resolve(String target, String upstreamBaseUrl) {
+        String mode = mode();
+        if ("live".equals(mode)) {
+            return upstreamBaseUrl;
+        }
+        URI uri = URI.create(upstreamBaseUrl);
+        String origin = uri.getScheme() + "://" + uri.getAuthority();
+        RecordReplayServer server = SERVERS.computeIfAbsent(target, t -> {
+            try {
+                return new RecordReplayServer(t, origin, "record".equals(mode));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start record/replay server for " + t, e);
+            }
+        });
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        return "http://127.0.0.1:" + server.server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Random id in live mode; fixed in record/replay so request bodies, and therefore
+     * recording keys and echoed responses, stay identical between runs.
+     */
+    public static String uniqueId() {
+        return "live".equals(mode()) ? UUID.randomUUID().toString() : "replay";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            String method = exchange.getRequestMethod();
+            String pathAndQuery = exchange.getRequestURI().getRawPath()
+                    + (exchange.getRequestURI().getRawQuery() != null ? "?" + exchange.getRequestURI().getRawQuery() : "");
+            String key = key(method, pathAndQuery, requestBody);
+
+            Recording recording = recordMode ? record(exchange, method, pathAndQuery, requestBody, key) : lookup(key);
+            if (recording == null) {
+                byte[] msg = ("No recording for " + method + " " + pathAndQuery + " (key " + key + ")").getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(404, msg.length);
+                exchange.getResponseBody().write(msg);
+                return;
+            }
+            if (!recordMode) {
+                injectLatency();
+            }
+            for (String[] header : recording.headers()) {
+                exchange.getResponseHeaders().add(header[0], header[1]);
+            }
+            boolean noBody = recording.body().length == 0 || recording.status() == 204 || recording.status() == 304
+                    || "HEAD".equalsIgnoreCase(method);
+            exchange.sendResponseHeaders(recording.status(), noBody ? -1 : recording.body().length);
+            if (!noBody) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(recording.body());
+                }
+            }
+        } catch (Exception e) {
+            logger.error("[Replay] Request failed: " + e.getMessage(), e);
+        }
+    }
+
+    private Recording record(HttpExchange exchange, String method, String pathAndQuery, byte[] body, String key)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(upstreamOrigin + pathAndQuery))
+                .method(method, body.length == 0 ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) return;
+            values.forEach(v -> request.header(name, v));
+        });
+        HttpResponse<byte[]> response = upstream.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        List<String[]> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> {
+            if (SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT)) || name.startsWith(":")) return;
+            for (String v : values) {
+                // Keep redirects on the local server
+                headers.add(new String[]{name, "location".equalsIgnoreCase(name) ? v.replace(upstreamOrigin, "") : v});
+            }
+        });
+        Recording recording = new Recording(response.statusCode(), headers, response.body());
+        save(key, method, pathAndQuery, recording);
+        cache.put(key, recording);
+        return recording;
+    }
+
+    private Recording lookup(String key) throws IOException {
+        Recording cached = cache.get(key);
+        if (cached != null) return cached;
+        Path meta = storeDir.resolve(key + ".meta");
+        if (!Files.exists(meta)) return null;
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+        List<String[]> headers = new ArrayList<>();
+        for (int i = 0; props.containsKey("header." + i); i++) {
+            String line = props.getProperty("header." + i);
+            int colon = line.indexOf(':');
+            headers.add(new String[]{line.substring(0, colon), line.substring(colon + 1).trim()});
+        }
+        Path bodyFile = storeDir.resolve(key + ".body");
+        byte[] body = Files.exists(bodyFile) ? Files.readAllBytes(bodyFile) : new byte[0];
+        Recording recording = new Recording(Integer.parseInt(props.getProperty("status")), headers, body);
+        cache.put(key, recording);
+        return recording;
+    }
+
+    private void save(String key, String method, String pathAndQuery, Recording recording) throws IOException {
+        Files.createDirectories(storeDir);
+        Properties props = new Properties();
+        props.setProperty("method", method);
+        props.setProperty("uri", pathAndQuery);
+        props.setProperty("status", String.valueOf(recording.status()));
+        for (int i = 0; i < recording.headers().size(); i++) {
+            String[] h = recording.headers().get(i);
+            props.setProperty("header." + i, h[0] + ": " + h[1]);
+        }
+        try (Writer writer = Files.newBufferedWriter(storeDir.resolve(key + ".meta"), StandardCharsets.UTF_8)) {
+            props.store(writer, target + " recording");
+        }
+        Files.write(storeDir.resolve(key + ".body"), recording.body());
+    }
+
+    private void injectLatency() throws InterruptedException {
+        long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private static String key(String method, String pathAndQuery, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + pathAndQuery + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
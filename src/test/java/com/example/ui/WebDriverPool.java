@@ -0,0 +1,214 @@
+package com.example.ui;
+
+import com.example.util.WebDriverSessions;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebDriverPool
+ * JVM-wide pool of headless Chrome sessions shared by UI test classes.
+ * Sessions are pre-launched when the first suite attaches, lent out one per test,
+ * reset between tests (cookies, storage, blank page) and recycled after
+ * webdriver.pool.maxUses tests or as soon as they stop responding.
+ *
+ * System properties: webdriver.pool.size (default 4), webdriver.pool.maxUses (default 25),
+ * webdriver.pool.retainOnDetach (default false).
+ */
+public final class WebDriverPool {
+    private static final Logger logger = LogManager.getLogger(WebDriverPool.class);
+    private static final WebDriverPool INSTANCE = new WebDriverPool(
+            Integer.getInteger("webdriver.pool.size", 4),
+            Integer.getInteger("webdriver.pool.maxUses", 25));
+
+    private final int size;
+    private final int maxUses;
+    private final BlockingQueue<WebDriver> idle = new LinkedBlockingQueue<>();
+    private final Map<WebDriver, Integer> uses = new ConcurrentHashMap<>();
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicInteger attachedSuites = new AtomicInteger();
+
+    private WebDriverPool(int size, int maxUses) {
+        this.size = size;
+        this.maxUses = maxUses;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::quitIdle, "webdriver-pool-shutdown"));
+    }
+
+    public static WebDriverPool get() {
+        return INSTANCE;
+    }
+
+    /** Resolves the chromedriver binary once per JVM (class init is thread-safe and runs once). */
+    private static final class DriverBinary {
+        static {
+            WebDriverManager.chromedriver().setup();
+        }
+        static void ensureResolved() { }
+    }
+
+    /** Called from @BeforeSuite: the first attached suite pre-launches all sessions in parallel. */
+    public void attach() {
+        if (attachedSuites.incrementAndGet() == 1) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Called from @AfterSuite: idle sessions are quit once the last suite detaches, unless
+     * webdriver.pool.retainOnDetach is set (shard workers run many one-test suites per JVM).
+     */
+    public void detach() {
+        if (attachedSuites.decrementAndGet() == 0 && !Boolean.getBoolean("webdriver.pool.retainOnDetach")) {
+            quitIdle();
+        }
+    }
+
+    private void warmUp() {
+        DriverBinary.ensureResolved();
+        List<CompletableFuture<Void>> launches = new ArrayList<>();
+        while (reserveSlot()) {
+            launches.add(CompletableFuture.runAsync(() -> {
+                try {
+                    idle.offer(launch());
+                } catch (RuntimeException e) {
+                    live.decrementAndGet();
+                    logger.error("Pre-launching WebDriver failed: " + e.getMessage(), e);
+                }
+            }));
+        }
+        launches.forEach(CompletableFuture::join);
+        logger.info("[Pool] {} WebDriver sessions ready", idle.size());
+    }
+
+    /** Borrow a healthy session, launching one if the pool is below size, else waiting for a release. */
+    public WebDriver borrow() {
+        while (true) {
+            WebDriver driver = idle.poll();
+            if (driver == null && reserveSlot()) {
+                try {
+                    driver = launch();
+                } catch (RuntimeException e) {
+                    live.decrementAndGet();
+                    throw e;
+                }
+            }
+            if (driver == null) {
+                try {
+                    driver = idle.poll(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a WebDriver session", e);
+                }
+                if (driver == null) continue;
+            }
+            if (isHealthy(driver)) {
+                WebDriverSessions.checkedOut();
+                return driver;
+            }
+            discard(driver);
+        }
+    }
+
+    /** Return a session after a test; it is reset for the next test or recycled. */
+    public void release(WebDriver driver) {
+        if (driver == null) return;
+        WebDriverSessions.checkedIn();
+        int count = uses.merge(driver, 1, Integer::sum);
+        if (count >= maxUses || !reset(driver)) {
+            discard(driver);
+            return;
+        }
+        idle.offer(driver);
+    }
+
+    public int getLiveSessions() {
+        return live.get();
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = live.get();
+            if (current >= size) return false;
+            if (live.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    private WebDriver launch() {
+        DriverBinary.ensureResolved();
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new");
+        WebDriver driver = new ChromeDriver(options);
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(90));
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(30));
+        uses.put(driver, 0);
+        WebDriverSessions.opened();
+        logger.info("[Pool][Thread {}] WebDriver launched", Thread.currentThread().getId());
+        return driver;
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            logger.warn("[Pool] Dropping unhealthy WebDriver session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean reset(WebDriver driver) {
+        try {
+            // Storage is per origin, so clear it before leaving the page under test
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            driver.manage().deleteAllCookies();
+            String first = null;
+            for (String handle : driver.getWindowHandles()) {
+                if (first == null) {
+                    first = handle;
+                } else {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            if (first != null) driver.switchTo().window(first);
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            logger.warn("[Pool] Reset failed, recycling session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        uses.remove(driver);
+        live.decrementAndGet();
+        WebDriverSessions.closed();
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.error("WebDriver quit failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void quitIdle() {
+        WebDriver driver;
+        while ((driver = idle.poll()) != null) {
+            discard(driver);
+        }
+    }
+}